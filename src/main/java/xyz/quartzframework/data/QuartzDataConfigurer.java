@@ -12,12 +12,16 @@ import xyz.quartzframework.data.annotation.DiscoverEntities;
 import xyz.quartzframework.data.annotation.DiscoverStorages;
 import xyz.quartzframework.data.entity.EntityDiscovery;
 import xyz.quartzframework.data.entity.EntityRegistrar;
+import xyz.quartzframework.data.metrics.MetricsRegistry;
+import xyz.quartzframework.data.metrics.SlowQueryLog;
+import xyz.quartzframework.data.metrics.StorageMetrics;
 import xyz.quartzframework.data.query.CompositeQueryParser;
 import xyz.quartzframework.data.query.MethodQueryParser;
 import xyz.quartzframework.data.query.QQLQueryParser;
 import xyz.quartzframework.data.storage.*;
 
 import javax.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
 import java.net.URLClassLoader;
 
 @Configurer(force = true)
@@ -53,11 +57,25 @@ public class QuartzDataConfigurer {
         return new EntityRegistrar(entityDiscovery);
     }
 
+    @Provide
+    @Priority(2)
+    @ActivateWhenBeanMissing(StorageMetrics.class)
+    StorageMetrics storageMetrics() {
+        return new MetricsRegistry(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    @Provide
+    @Priority(2)
+    @ActivateWhenBeanMissing(SlowQueryLog.class)
+    SlowQueryLog slowQueryLog() {
+        return SlowQueryLog.disabled();
+    }
+
     @Provide
     @Priority(3)
     @ActivateWhenBeanMissing(StorageFactory.class)
-    StorageFactory storageFactory(CompositeQueryParser queryParser, URLClassLoader classLoader) {
-        return new DefaultStorageFactory(queryParser, classLoader, pluginBeanFactory);
+    StorageFactory storageFactory(CompositeQueryParser queryParser, URLClassLoader classLoader, StorageMetrics storageMetrics, SlowQueryLog slowQueryLog) {
+        return new DefaultStorageFactory(queryParser, classLoader, pluginBeanFactory, storageMetrics, slowQueryLog);
     }
 
     @Provide
@@ -78,8 +96,33 @@ public class QuartzDataConfigurer {
     }
 
     @Provide
+    @ActivateWhenBeanMissing(InMemoryStorageProvider.class)
     InMemoryStorageProvider inMemoryStorageProvider() {
         return new InMemoryStorageProvider();
     }
 
+    @Provide
+    @ActivateWhenBeanMissing(OffHeapStorageProvider.class)
+    OffHeapStorageProvider offHeapStorageProvider() {
+        return new OffHeapStorageProvider();
+    }
+
+    @Provide
+    @ActivateWhenBeanMissing(DataDirectory.class)
+    DataDirectory dataDirectory() {
+        return DataDirectory.fromSystemProperty();
+    }
+
+    @Provide
+    @ActivateWhenBeanMissing(MappedStorageProvider.class)
+    MappedStorageProvider mappedStorageProvider(DataDirectory dataDirectory) {
+        return new MappedStorageProvider(dataDirectory.path());
+    }
+
+    @Provide
+    @ActivateWhenBeanMissing(DurableStorageProvider.class)
+    DurableStorageProvider durableStorageProvider(DataDirectory dataDirectory) {
+        return new DurableStorageProvider(DurabilityOptions.of(dataDirectory.path()));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package xyz.quartzframework.data.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary representation of an entity class for storages that keep entities
+ * outside the Java heap. {@link #encode} may throw
+ * {@link java.nio.BufferOverflowException}, in which case the caller retries
+ * with a larger buffer; {@link #decode} reads from the buffer's position.
+ */
+public interface EntityCodec<E> {
+
+    void encode(E entity, ByteBuffer buffer);
+
+    E decode(ByteBuffer buffer);
+
+}
\ No newline at end of file
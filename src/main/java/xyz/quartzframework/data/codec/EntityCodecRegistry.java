@@ -0,0 +1,18 @@
+package xyz.quartzframework.data.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class EntityCodecRegistry {
+
+    private final Map<Class<?>, EntityCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    public <E> void register(Class<E> entityClass, EntityCodec<E> codec) {
+        codecs.put(entityClass, codec);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E> EntityCodec<E> get(Class<E> entityClass) {
+        return (EntityCodec<E>) codecs.computeIfAbsent(entityClass, FieldEntityCodec::of);
+    }
+}
\ No newline at end of file
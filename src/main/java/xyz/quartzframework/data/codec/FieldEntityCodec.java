@@ -0,0 +1,242 @@
+package xyz.quartzframework.data.codec;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class FieldEntityCodec<E> implements EntityCodec<E> {
+
+    private static final Map<Class<?>, ValueCodec> VALUE_CODECS = new HashMap<>();
+
+    static {
+        register(new ValueCodec((b, v) -> b.put((byte) ((Boolean) v ? 1 : 0)), b -> b.get() != 0), boolean.class, Boolean.class);
+        register(new ValueCodec((b, v) -> b.put((Byte) v), ByteBuffer::get), byte.class, Byte.class);
+        register(new ValueCodec((b, v) -> b.putShort((Short) v), ByteBuffer::getShort), short.class, Short.class);
+        register(new ValueCodec((b, v) -> b.putChar((Character) v), ByteBuffer::getChar), char.class, Character.class);
+        register(new ValueCodec((b, v) -> b.putInt((Integer) v), ByteBuffer::getInt), int.class, Integer.class);
+        register(new ValueCodec((b, v) -> b.putLong((Long) v), ByteBuffer::getLong), long.class, Long.class);
+        register(new ValueCodec((b, v) -> b.putFloat((Float) v), ByteBuffer::getFloat), float.class, Float.class);
+        register(new ValueCodec((b, v) -> b.putDouble((Double) v), ByteBuffer::getDouble), double.class, Double.class);
+        register(new ValueCodec((b, v) -> putBytes(b, ((String) v).getBytes(StandardCharsets.UTF_8)), b -> new String(getBytes(b), StandardCharsets.UTF_8)), String.class);
+        register(new ValueCodec((b, v) -> putBytes(b, (byte[]) v), FieldEntityCodec::getBytes), byte[].class);
+        register(new ValueCodec((b, v) -> {
+            UUID uuid = (UUID) v;
+            b.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        }, b -> new UUID(b.getLong(), b.getLong())), UUID.class);
+        register(new ValueCodec((b, v) -> {
+            Instant instant = (Instant) v;
+            b.putLong(instant.getEpochSecond()).putInt(instant.getNano());
+        }, b -> Instant.ofEpochSecond(b.getLong(), b.getInt())), Instant.class);
+        register(new ValueCodec((b, v) -> {
+            Duration duration = (Duration) v;
+            b.putLong(duration.getSeconds()).putInt(duration.getNano());
+        }, b -> Duration.ofSeconds(b.getLong(), b.getInt())), Duration.class);
+        register(new ValueCodec((b, v) -> b.putLong(((LocalDate) v).toEpochDay()), b -> LocalDate.ofEpochDay(b.getLong())), LocalDate.class);
+        register(new ValueCodec((b, v) -> b.putLong(((LocalTime) v).toNanoOfDay()), b -> LocalTime.ofNanoOfDay(b.getLong())), LocalTime.class);
+        register(new ValueCodec((b, v) -> {
+            LocalDateTime dateTime = (LocalDateTime) v;
+            b.putLong(dateTime.toLocalDate().toEpochDay()).putLong(dateTime.toLocalTime().toNanoOfDay());
+        }, b -> LocalDateTime.of(LocalDate.ofEpochDay(b.getLong()), LocalTime.ofNanoOfDay(b.getLong()))), LocalDateTime.class);
+        register(new ValueCodec((b, v) -> putBytes(b, ((BigInteger) v).toByteArray()), b -> new BigInteger(getBytes(b))), BigInteger.class);
+        register(new ValueCodec((b, v) -> {
+            BigDecimal decimal = (BigDecimal) v;
+            b.putInt(decimal.scale());
+            putBytes(b, decimal.unscaledValue().toByteArray());
+        }, b -> {
+            int scale = b.getInt();
+            return new BigDecimal(new BigInteger(getBytes(b)), scale);
+        }), BigDecimal.class);
+    }
+
+    @Getter
+    private final Class<E> entityClass;
+
+    private final Slot[] slots;
+
+    @Nullable
+    private final MethodHandle allArgsConstructor;
+
+    @Nullable
+    private final MethodHandle noArgsConstructor;
+
+    private FieldEntityCodec(Class<E> entityClass) {
+        this.entityClass = entityClass;
+        List<Field> fields = fields(entityClass);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?>[] types = fields.stream().map(Field::getType).toArray(Class<?>[]::new);
+        this.allArgsConstructor = findConstructor(lookup, entityClass, types);
+        this.noArgsConstructor = allArgsConstructor == null ? findConstructor(lookup, entityClass) : null;
+        if (allArgsConstructor == null && noArgsConstructor == null) {
+            throw new IllegalArgumentException(entityClass.getName() + " needs a no-args constructor or one taking every field in declaration order");
+        }
+        this.slots = new Slot[fields.size()];
+        for (int i = 0; i < slots.length; i++) {
+            Field field = fields.get(i);
+            if (allArgsConstructor == null && Modifier.isFinal(field.getModifiers())) {
+                throw new IllegalArgumentException("Final field " + field.getName() + " of " + entityClass.getName() + " cannot be restored without an all-args constructor");
+            }
+            slots[i] = new Slot(field, valueCodec(field), accessor(lookup, field, true), allArgsConstructor == null ? accessor(lookup, field, false) : null);
+        }
+    }
+
+    public static <E> FieldEntityCodec<E> of(Class<E> entityClass) {
+        return new FieldEntityCodec<>(entityClass);
+    }
+
+    @Override
+    public void encode(E entity, ByteBuffer buffer) {
+        for (Slot slot : slots) {
+            Object value = invoke(slot.getter(), entity);
+            if (!slot.field().getType().isPrimitive()) {
+                buffer.put((byte) (value == null ? 0 : 1));
+                if (value == null) continue;
+            }
+            slot.codec().write(buffer, value);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E decode(ByteBuffer buffer) {
+        Object[] values = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            if (slot.field().getType().isPrimitive() || buffer.get() != 0) {
+                values[i] = slot.codec().read(buffer);
+            }
+        }
+        try {
+            if (allArgsConstructor != null) {
+                return (E) allArgsConstructor.invoke(values);
+            }
+            Object entity = noArgsConstructor.invoke();
+            for (int i = 0; i < slots.length; i++) {
+                slots[i].setter().invoke(entity, values[i]);
+            }
+            return (E) entity;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to decode " + entityClass.getName(), e);
+        }
+    }
+
+    private static void register(ValueCodec codec, Class<?>... types) {
+        for (Class<?> type : types) {
+            VALUE_CODECS.put(type, codec);
+        }
+    }
+
+    private static List<Field> fields(Class<?> entityClass) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            hierarchy.add(0, type);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type : hierarchy) {
+            Arrays.stream(type.getDeclaredFields())
+                    .filter(f -> !f.isSynthetic() && !Modifier.isStatic(f.getModifiers()) && !Modifier.isTransient(f.getModifiers()))
+                    .forEach(fields::add);
+        }
+        return fields;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueCodec valueCodec(Field field) {
+        Class<?> type = field.getType();
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return new ValueCodec((b, v) -> putBytes(b, ((Enum<?>) v).name().getBytes(StandardCharsets.UTF_8)),
+                    b -> Enum.valueOf(enumType, new String(getBytes(b), StandardCharsets.UTF_8)));
+        }
+        ValueCodec codec = VALUE_CODECS.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("Field " + field.getDeclaringClass().getSimpleName() + "." + field.getName()
+                    + " of type " + type.getName() + " is not supported by FieldEntityCodec; register an EntityCodec for the entity instead");
+        }
+        return codec;
+    }
+
+    @Nullable
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type, Class<?>... parameters) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor(parameters);
+            constructor.setAccessible(true);
+            MethodHandle handle = lookup.unreflectConstructor(constructor);
+            return parameters.length == 0
+                    ? handle.asType(MethodType.methodType(Object.class))
+                    : handle.asSpreader(Object[].class, parameters.length).asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access constructor of " + type.getName(), e);
+        }
+    }
+
+    private static MethodHandle accessor(MethodHandles.Lookup lookup, Field field, boolean getter) {
+        try {
+            field.setAccessible(true);
+            return getter
+                    ? lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class))
+                    : lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field.getDeclaringClass().getName() + "." + field.getName(), e);
+        }
+    }
+
+    private static Object invoke(MethodHandle getter, Object entity) {
+        try {
+            return getter.invoke(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read field", e);
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private record Slot(Field field, ValueCodec codec, MethodHandle getter, @Nullable MethodHandle setter) { }
+
+    private record ValueCodec(BiConsumer<ByteBuffer, Object> writer, Function<ByteBuffer, Object> reader) {
+
+        void write(ByteBuffer buffer, Object value) {
+            writer.accept(buffer, value);
+        }
+
+        Object read(ByteBuffer buffer) {
+            return reader.apply(buffer);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package xyz.quartzframework.data.entity;
+
+@FunctionalInterface
+public interface AttributeAccessor {
+
+    Object get(Object entity);
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package xyz.quartzframework.data.entity;
+
+@FunctionalInterface
+public interface AttributeWriter {
+
+    void set(Object entity, Object value);
+
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package xyz.quartzframework.data.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Indexed {
+
+    boolean sorted() default false;
+
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package xyz.quartzframework.data.index;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Set;
+
+public interface AttributeIndex<ID> {
+
+    String getAttribute();
+
+    void put(ID id, @Nullable Object value);
+
+    void remove(ID id);
+
+    Set<ID> get(@Nullable Object value);
+
+    int count(@Nullable Object value);
+
+}
\ No newline at end of file
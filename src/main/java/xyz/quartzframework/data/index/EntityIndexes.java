@@ -0,0 +1,70 @@
+package xyz.quartzframework.data.index;
+
+import lombok.val;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.entity.Attribute;
+import xyz.quartzframework.data.entity.AttributeAccessor;
+import xyz.quartzframework.data.entity.Indexed;
+import xyz.quartzframework.data.util.AttributeAccessorUtil;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EntityIndexes<E, ID> {
+
+    private final Map<String, AttributeIndex<ID>> indexes = new HashMap<>();
+
+    private final List<IndexBinding<ID>> bindings = new ArrayList<>();
+
+    public EntityIndexes(Class<E> entityClass) {
+        for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                val indexed = field.getAnnotation(Indexed.class);
+                if (indexed == null || indexes.containsKey(field.getName())) {
+                    continue;
+                }
+                AttributeIndex<ID> index = indexed.sorted() && isSortable(field.getType())
+                        ? new SkipListAttributeIndex<>(field.getName(), MethodType.methodType(field.getType()).wrap().returnType())
+                        : new HashAttributeIndex<>(field.getName());
+                bindings.add(new IndexBinding<>(AttributeAccessorUtil.resolve(entityClass, field.getName()), index));
+                indexes.put(field.getName(), index);
+                val alias = field.getAnnotation(Attribute.class);
+                if (alias != null) {
+                    indexes.putIfAbsent(alias.value(), index);
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return bindings.isEmpty();
+    }
+
+    @Nullable
+    public AttributeIndex<ID> get(String attribute) {
+        return indexes.get(attribute);
+    }
+
+    public void put(ID id, E entity) {
+        for (IndexBinding<ID> binding : bindings) {
+            binding.index().put(id, binding.accessor().get(entity));
+        }
+    }
+
+    public void remove(ID id) {
+        for (IndexBinding<ID> binding : bindings) {
+            binding.index().remove(id);
+        }
+    }
+
+    private static boolean isSortable(Class<?> type) {
+        return type.isPrimitive() || Comparable.class.isAssignableFrom(type) && (type.isEnum() || Modifier.isFinal(type.getModifiers()));
+    }
+
+    private record IndexBinding<ID>(AttributeAccessor accessor, AttributeIndex<ID> index) { }
+}
\ No newline at end of file
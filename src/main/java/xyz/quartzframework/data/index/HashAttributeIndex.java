@@ -0,0 +1,68 @@
+package xyz.quartzframework.data.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+public class HashAttributeIndex<ID> implements AttributeIndex<ID> {
+
+    private static final Object NULL_KEY = new Object();
+
+    private final Map<Object, Set<ID>> entries = new ConcurrentHashMap<>();
+
+    private final Map<ID, Object> keys = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String attribute;
+
+    @Override
+    public void put(ID id, @Nullable Object value) {
+        Object key = value == null ? NULL_KEY : value;
+        Object previous = keys.put(id, key);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        if (previous != null) {
+            detach(previous, id);
+        }
+        entries.compute(key, (k, ids) -> {
+            if (ids == null) ids = ConcurrentHashMap.newKeySet();
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    @Override
+    public void remove(ID id) {
+        Object previous = keys.remove(id);
+        if (previous != null) {
+            detach(previous, id);
+        }
+    }
+
+    @Override
+    public Set<ID> get(@Nullable Object value) {
+        Set<ID> ids = entries.get(value == null ? NULL_KEY : value);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    @Override
+    public int count(@Nullable Object value) {
+        Set<ID> ids = entries.get(value == null ? NULL_KEY : value);
+        return ids == null ? 0 : ids.size();
+    }
+
+    private void detach(Object key, ID id) {
+        entries.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package xyz.quartzframework.data.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+@SuppressWarnings("unchecked")
+public class SkipListAttributeIndex<ID> implements SortedAttributeIndex<ID> {
+
+    private static final Object NULL_KEY = new Object();
+
+    private final NavigableMap<Object, Set<ID>> entries = new ConcurrentSkipListMap<>();
+
+    private final Set<ID> nulls = ConcurrentHashMap.newKeySet();
+
+    private final Map<ID, Object> keys = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String attribute;
+
+    @Getter
+    private final Class<?> keyType;
+
+    @Override
+    public void put(ID id, @Nullable Object value) {
+        Object key = value == null ? NULL_KEY : value;
+        Object previous = keys.put(id, key);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        if (previous != null) {
+            detach(previous, id);
+        }
+        if (value == null) {
+            nulls.add(id);
+            return;
+        }
+        entries.compute(value, (k, ids) -> {
+            if (ids == null) ids = ConcurrentHashMap.newKeySet();
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    @Override
+    public void remove(ID id) {
+        Object previous = keys.remove(id);
+        if (previous != null) {
+            detach(previous, id);
+        }
+    }
+
+    @Override
+    public Set<ID> get(@Nullable Object value) {
+        if (value == null) {
+            return Collections.unmodifiableSet(nulls);
+        }
+        if (!keyType.isInstance(value)) {
+            return Collections.emptySet();
+        }
+        Set<ID> ids = entries.get(value);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    @Override
+    public int count(@Nullable Object value) {
+        return get(value).size();
+    }
+
+    @Override
+    public Collection<ID> range(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive) {
+        List<ID> ids = new ArrayList<>();
+        for (Set<ID> bucket : view(from, fromInclusive, to, toInclusive).values()) {
+            ids.addAll(bucket);
+        }
+        return ids;
+    }
+
+    @Override
+    public Iterable<Set<ID>> buckets(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive, boolean descending) {
+        NavigableMap<Object, Set<ID>> view = view(from, fromInclusive, to, toInclusive);
+        Collection<Set<ID>> ordered = descending ? view.descendingMap().values() : view.values();
+        if (from != null || to != null || nulls.isEmpty()) {
+            return ordered;
+        }
+        Stream<Set<ID>> nullBucket = Stream.of(nulls);
+        Stream<Set<ID>> buckets = descending
+                ? Stream.concat(ordered.stream(), nullBucket)
+                : Stream.concat(nullBucket, ordered.stream());
+        return buckets::iterator;
+    }
+
+    private NavigableMap<Object, Set<ID>> view(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive) {
+        if (from != null && to != null) {
+            int cmp = ((Comparable<Object>) from).compareTo(to);
+            if (cmp > 0 || (cmp == 0 && !(fromInclusive && toInclusive))) {
+                return Collections.emptyNavigableMap();
+            }
+            return entries.subMap(from, fromInclusive, to, toInclusive);
+        }
+        if (from != null) return entries.tailMap(from, fromInclusive);
+        if (to != null) return entries.headMap(to, toInclusive);
+        return entries;
+    }
+
+    private void detach(Object key, ID id) {
+        if (key == NULL_KEY) {
+            nulls.remove(id);
+            return;
+        }
+        entries.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
\ No newline at end of file
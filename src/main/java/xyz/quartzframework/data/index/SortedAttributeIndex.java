@@ -0,0 +1,16 @@
+package xyz.quartzframework.data.index;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface SortedAttributeIndex<ID> extends AttributeIndex<ID> {
+
+    Class<?> getKeyType();
+
+    Collection<ID> range(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive);
+
+    Iterable<Set<ID>> buckets(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive, boolean descending);
+
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package xyz.quartzframework.data.metrics;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+@FunctionalInterface
+public interface ArgumentRenderer {
+
+    ArgumentRenderer DEFAULT = sampling(3, 64);
+
+    ArgumentRenderer REDACT_ALL = value -> "<redacted>";
+
+    String render(@Nullable Object value);
+
+    static ArgumentRenderer sampling(int maxElements, int maxLength) {
+        return new ArgumentRenderer() {
+            @Override
+            public String render(@Nullable Object value) {
+                if (value instanceof Collection<?> collection) {
+                    return elements(collection.iterator(), collection.size());
+                }
+                if (value != null && value.getClass().isArray()) {
+                    int length = Array.getLength(value);
+                    List<Object> head = new ArrayList<>(Math.min(length, maxElements));
+                    for (int i = 0; i < length && i < maxElements; i++) {
+                        head.add(Array.get(value, i));
+                    }
+                    return elements(head.iterator(), length);
+                }
+                return scalar(value);
+            }
+
+            private String elements(Iterator<?> iterator, int size) {
+                StringBuilder builder = new StringBuilder("[");
+                for (int i = 0; i < maxElements && iterator.hasNext(); i++) {
+                    if (i > 0) builder.append(", ");
+                    builder.append(scalar(iterator.next()));
+                }
+                if (size > maxElements) {
+                    builder.append(", ... (").append(size).append(" total)");
+                }
+                return builder.append(']').toString();
+            }
+
+            private String scalar(@Nullable Object value) {
+                if (value == null) return "null";
+                String text = String.valueOf(value);
+                if (text.length() > maxLength) {
+                    text = text.substring(0, maxLength) + "...";
+                }
+                return value instanceof CharSequence ? "'" + text + "'" : text;
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package xyz.quartzframework.data.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@RequiredArgsConstructor
+public class MethodStatistics implements StorageMethodMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    @Getter
+    private final String storage;
+
+    @Getter
+    private final String method;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder rowsScanned = new LongAdder();
+
+    private final LongAdder rowsReturned = new LongAdder();
+
+    void record(long durationNanos, boolean failed, long scanned, long returned) {
+        latency.record(durationNanos);
+        if (failed) {
+            errors.increment();
+        }
+        if (scanned > 0) {
+            rowsScanned.add(scanned);
+        }
+        if (returned > 0) {
+            rowsReturned.add(returned);
+        }
+    }
+
+    @Override
+    public long getInvocations() {
+        return latency.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowsScanned() {
+        return rowsScanned.sum();
+    }
+
+    @Override
+    public long getRowsReturned() {
+        return rowsReturned.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.mean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.percentile(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.percentile(95) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.percentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.max() / NANOS_PER_MILLI;
+    }
+
+    public long percentileNanos(double percentile) {
+        return latency.percentile(percentile);
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        rowsScanned.reset();
+        rowsReturned.reset();
+    }
+}
\ No newline at end of file
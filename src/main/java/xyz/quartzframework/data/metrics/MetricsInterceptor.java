@@ -0,0 +1,46 @@
+package xyz.quartzframework.data.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.Page;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class MetricsInterceptor implements MethodInterceptor {
+
+    private final Class<?> storageInterface;
+
+    private final StorageMetrics metrics;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ScanTracker.Scan outer = ScanTracker.begin();
+        long started = System.nanoTime();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            long scanned = ScanTracker.end(outer).rows();
+            metrics.record(storageInterface, invocation.getMethod(), elapsed, failed, scanned, failed ? 0 : rows(result));
+        }
+    }
+
+    public static long rows(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Map<?, ?> map) return map.size();
+        if (result instanceof Page<?> page) return page.content().size();
+        if (result instanceof CursorPage<?> page) return page.content().size();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        return 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package xyz.quartzframework.data.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class MetricsRegistry implements StorageMetrics {
+
+    public static final String DOMAIN = "xyz.quartzframework.data";
+
+    private final Map<Class<?>, StorageStatistics> storages = new ConcurrentHashMap<>();
+
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+    @Nullable
+    private final MBeanServer server;
+
+    public MetricsRegistry() {
+        this(null);
+    }
+
+    public MetricsRegistry(@Nullable MBeanServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void record(Class<?> storage, Method method, long durationNanos, boolean failed, long rowsScanned, long rowsReturned) {
+        statistics(storage).method(method).record(durationNanos, failed, rowsScanned, rowsReturned);
+    }
+
+    @Override
+    public void register(Class<?> storage, LongSupplier entityCount) {
+        statistics(storage).entityCount = entityCount;
+    }
+
+    public StorageStatistics statistics(Class<?> storage) {
+        StorageStatistics statistics = storages.get(storage);
+        if (statistics != null) {
+            return statistics;
+        }
+        return storages.computeIfAbsent(storage, type -> {
+            StorageStatistics created = new StorageStatistics(type.getName());
+            publish(created, "type=Storage,name=" + ObjectName.quote(type.getName()));
+            return created;
+        });
+    }
+
+    public Collection<StorageStatistics> getStorages() {
+        return storages.values();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (server == null) {
+            return;
+        }
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                log.debug("Failed to unregister {}", name, e);
+            }
+        }
+        registered.clear();
+    }
+
+    private void publish(Object bean, String properties) {
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            server.registerMBean(bean, name);
+            registered.add(name);
+        } catch (JMException e) {
+            log.warn("Failed to publish storage metrics MBean {}", properties, e);
+        }
+    }
+
+    private static String describe(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    public class StorageStatistics implements StorageMXBean {
+
+        private final String storage;
+
+        private final Map<Method, MethodStatistics> methods = new ConcurrentHashMap<>();
+
+        private volatile LongSupplier entityCount = () -> -1;
+
+        private StorageStatistics(String storage) {
+            this.storage = storage;
+        }
+
+        public MethodStatistics method(Method method) {
+            MethodStatistics statistics = methods.get(method);
+            if (statistics != null) {
+                return statistics;
+            }
+            return methods.computeIfAbsent(method, m -> {
+                MethodStatistics created = new MethodStatistics(storage, describe(m));
+                publish(created, "type=StorageMethod,storage=" + ObjectName.quote(storage) + ",name=" + ObjectName.quote(created.getMethod()));
+                return created;
+            });
+        }
+
+        public Collection<MethodStatistics> getMethods() {
+            return methods.values();
+        }
+
+        @Override
+        public String getStorage() {
+            return storage;
+        }
+
+        @Override
+        public long getEntityCount() {
+            return entityCount.getAsLong();
+        }
+
+        @Override
+        public long getInvocations() {
+            return methods.values().stream().mapToLong(MethodStatistics::getInvocations).sum();
+        }
+
+        @Override
+        public long getErrors() {
+            return methods.values().stream().mapToLong(MethodStatistics::getErrors).sum();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package xyz.quartzframework.data.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("xyz.quartzframework.data.QueryExecution")
+@Label("Query Execution")
+@Description("Execution of a derived or QQL storage query")
+@Category({"Quartz", "Data"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class QueryExecutionEvent extends Event {
+
+    @Label("Storage")
+    public String storage;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Access Path")
+    public String accessPath;
+
+    @Label("Rows Scanned")
+    public long rowsScanned;
+
+    @Label("Rows Returned")
+    public long rowsReturned;
+
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package xyz.quartzframework.data.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("xyz.quartzframework.data.QueryParse")
+@Label("Query Parse")
+@Description("Parsing of a derived or QQL storage method into a query definition")
+@Category({"Quartz", "Data"})
+@StackTrace(false)
+@Threshold("0 ms")
+public class QueryParseEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Parser")
+    public String parser;
+
+    @Label("Action")
+    public String action;
+
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package xyz.quartzframework.data.metrics;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.query.QueryExplanation.AccessPath;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@UtilityClass
+public class ScanTracker {
+
+    private final ThreadLocal<Scan> CURRENT = new ThreadLocal<>();
+
+    @Nullable
+    public Scan begin() {
+        Scan previous = CURRENT.get();
+        CURRENT.set(new Scan());
+        return previous;
+    }
+
+    public Scan end(@Nullable Scan previous) {
+        Scan current = CURRENT.get();
+        if (current == null) {
+            current = new Scan();
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            previous.rows.add(current.rows());
+            if (previous.accessPath == null) {
+                previous.accessPath = current.accessPath;
+            }
+            CURRENT.set(previous);
+        }
+        return current;
+    }
+
+    /**
+     * Stops tracking on this thread until {@link #resume(Scan)}, so diagnostic work such as
+     * {@code explain} does not count towards the query being measured.
+     */
+    @Nullable
+    public Scan suspend() {
+        Scan current = CURRENT.get();
+        CURRENT.remove();
+        return current;
+    }
+
+    public void resume(@Nullable Scan suspended) {
+        if (suspended == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(suspended);
+        }
+    }
+
+    /**
+     * The scan being tracked on this thread, for executors that count rows as they are tested
+     * rather than up front; the returned scan may be counted against from any thread. Rows a
+     * lazily consumed stream tests after the storage method returned are not attributed to it.
+     */
+    @Nullable
+    public Scan current() {
+        return CURRENT.get();
+    }
+
+    public void add(long rows) {
+        Scan current = CURRENT.get();
+        if (current != null) {
+            current.rows.add(rows);
+        }
+    }
+
+    public void add(AccessPath accessPath, long rows) {
+        Scan current = CURRENT.get();
+        if (current != null) {
+            current.rows.add(rows);
+            current.accessPath = accessPath;
+        }
+    }
+
+    public static final class Scan {
+
+        private final LongAdder rows = new LongAdder();
+
+        @Nullable
+        private volatile AccessPath accessPath;
+
+        public void increment() {
+            rows.increment();
+        }
+
+        public long rows() {
+            return rows.sum();
+        }
+
+        @Nullable
+        public AccessPath accessPath() {
+            return accessPath;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package xyz.quartzframework.data.metrics;
+
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.query.QueryExplanation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public record SlowQuery(
+    Instant timestamp,
+    String method,
+    String query,
+    List<String> arguments,
+    @Nullable QueryExplanation.AccessPath accessPath,
+    long rowsScanned,
+    long rowsReturned,
+    Duration elapsed,
+    @Nullable QueryExplanation plan
+) {
+
+    @Override
+    public String toString() {
+        return method + " took " + elapsed.toMillis() + "ms (" + accessPath + ", scanned " + rowsScanned + " rows, returned " + rowsReturned + "): "
+                + query + " " + arguments
+                + (plan == null ? "" : "\n" + plan);
+    }
+}
\ No newline at end of file
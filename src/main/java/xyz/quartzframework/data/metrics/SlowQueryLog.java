@@ -0,0 +1,142 @@
+package xyz.quartzframework.data.metrics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.query.DynamicQueryDefinition;
+import xyz.quartzframework.data.query.QueryExecutor;
+import xyz.quartzframework.data.query.QueryExplanation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Slf4j
+public class SlowQueryLog {
+
+    @Getter
+    private final Duration threshold;
+
+    @Getter
+    private final int capacity;
+
+    private final long thresholdNanos;
+
+    @Getter
+    private final boolean enabled;
+
+    private final boolean logging;
+
+    private final boolean capturePlans;
+
+    private final ArgumentRenderer renderer;
+
+    private final AtomicReferenceArray<SlowQuery> entries;
+
+    private final AtomicLong recorded = new AtomicLong();
+
+    public SlowQueryLog(Duration threshold, int capacity) {
+        this(threshold, capacity, true, false, ArgumentRenderer.DEFAULT);
+    }
+
+    public SlowQueryLog(Duration threshold, int capacity, boolean logging, boolean capturePlans, ArgumentRenderer renderer) {
+        this(threshold, capacity, logging, capturePlans, renderer, true);
+    }
+
+    private SlowQueryLog(Duration threshold, int capacity, boolean logging, boolean capturePlans, ArgumentRenderer renderer, boolean enabled) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.logging = logging;
+        this.capturePlans = capturePlans;
+        this.renderer = renderer;
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * A log that records nothing, so storage proxies skip timing and scan
+     * tracking entirely.
+     */
+    public static SlowQueryLog disabled() {
+        return new SlowQueryLog(Duration.ZERO, 1, false, false, ArgumentRenderer.DEFAULT, false);
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return enabled && elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Records a slow execution from the access path and row counts collected while
+     * it ran. Only when plan capture is switched on is the query explained again,
+     * which re-runs it against the current data on the caller's thread.
+     */
+    public void record(Method method, String query, DynamicQueryDefinition definition, Object[] args, long elapsedNanos,
+                       @Nullable QueryExplanation.AccessPath accessPath, long rowsScanned, long rowsReturned, QueryExecutor<?> executor) {
+        SlowQuery entry = new SlowQuery(
+                Instant.now(),
+                method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                query,
+                arguments(method, args),
+                accessPath,
+                rowsScanned,
+                rowsReturned,
+                Duration.ofNanos(elapsedNanos),
+                capturePlans ? plan(definition, args, executor) : null
+        );
+        entries.set((int) (recorded.getAndIncrement() % capacity), entry);
+        if (logging) {
+            log.warn("Slow query {}", entry);
+        }
+    }
+
+    public List<SlowQuery> entries() {
+        long total = recorded.get();
+        int size = (int) Math.min(total, capacity);
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (long i = total - size; i < total; i++) {
+            SlowQuery entry = entries.get((int) (i % capacity));
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            entries.set(i, null);
+        }
+    }
+
+    private List<String> arguments(Method method, Object[] args) {
+        Parameter[] parameters = method.getParameters();
+        List<String> rendered = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            boolean redacted = i < parameters.length && parameters[i].isAnnotationPresent(Redacted.class);
+            rendered.add(redacted ? "<redacted>" : renderer.render(args[i]));
+        }
+        return rendered;
+    }
+
+    @Nullable
+    private QueryExplanation plan(DynamicQueryDefinition definition, Object[] args, QueryExecutor<?> executor) {
+        try {
+            return executor.explain(definition, args);
+        } catch (RuntimeException e) {
+            log.debug("Failed to capture plan for slow query {}", definition.raw(), e);
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package xyz.quartzframework.data.metrics;
+
+public interface StorageMXBean {
+
+    String getStorage();
+
+    long getEntityCount();
+
+    long getInvocations();
+
+    long getErrors();
+
+}
\ No newline at end of file
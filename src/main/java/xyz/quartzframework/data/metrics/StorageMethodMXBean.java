@@ -0,0 +1,29 @@
+package xyz.quartzframework.data.metrics;
+
+public interface StorageMethodMXBean {
+
+    String getStorage();
+
+    String getMethod();
+
+    long getInvocations();
+
+    long getErrors();
+
+    long getRowsScanned();
+
+    long getRowsReturned();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    void reset();
+
+}
\ No newline at end of file
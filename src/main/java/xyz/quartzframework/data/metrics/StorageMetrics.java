@@ -0,0 +1,15 @@
+package xyz.quartzframework.data.metrics;
+
+import java.lang.reflect.Method;
+import java.util.function.LongSupplier;
+
+public interface StorageMetrics {
+
+    StorageMetrics NOOP = (storage, method, durationNanos, failed, rowsScanned, rowsReturned) -> { };
+
+    void record(Class<?> storage, Method method, long durationNanos, boolean failed, long rowsScanned, long rowsReturned);
+
+    default void register(Class<?> storage, LongSupplier entityCount) {
+    }
+
+}
\ No newline at end of file
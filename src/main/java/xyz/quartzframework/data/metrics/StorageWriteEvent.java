@@ -0,0 +1,28 @@
+package xyz.quartzframework.data.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("xyz.quartzframework.data.StorageWrite")
+@Label("Storage Write")
+@Description("A save or delete batch applied to an in-memory storage")
+@Category({"Quartz", "Data"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class StorageWriteEvent extends Event {
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Entities")
+    public long entities;
+
+}
\ No newline at end of file
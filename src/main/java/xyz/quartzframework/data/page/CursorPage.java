@@ -0,0 +1,36 @@
+package xyz.quartzframework.data.page;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public record CursorPage<T>(
+    List<T> content,
+    int size,
+    Sort sort,
+    @Nullable String nextCursor
+) {
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public Optional<CursorRequest> next() {
+        return hasNext() ? Optional.of(CursorRequest.after(nextCursor, size, sort)) : Optional.empty();
+    }
+
+    public Stream<T> stream() {
+        return content.stream();
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(stream().map(mapper).toList(), size, sort, nextCursor);
+    }
+}
\ No newline at end of file
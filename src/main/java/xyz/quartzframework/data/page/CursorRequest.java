@@ -0,0 +1,29 @@
+package xyz.quartzframework.data.page;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+
+public record CursorRequest(int size, Sort sort, @Nullable String cursor) {
+
+    public CursorRequest {
+        if (size <= 0) throw new IllegalArgumentException("size must be > 0");
+        Objects.requireNonNull(sort, "sort must not be null");
+    }
+
+    public static CursorRequest first(int size) {
+        return new CursorRequest(size, Sort.unsorted(), null);
+    }
+
+    public static CursorRequest first(int size, Sort sort) {
+        return new CursorRequest(size, sort, null);
+    }
+
+    public static CursorRequest after(String cursor, int size, Sort sort) {
+        return new CursorRequest(size, sort, Objects.requireNonNull(cursor, "cursor must not be null"));
+    }
+
+    public boolean isFirst() {
+        return cursor == null;
+    }
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.Getter;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 @Getter
 public class Sort {
@@ -31,4 +32,14 @@ public class Sort {
     public boolean isSorted() {
         return !orders.isEmpty();
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Sort other && orders.equals(other.orders);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orders);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package xyz.quartzframework.data.query;
+
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.entity.AttributeAccessor;
+import xyz.quartzframework.data.util.AttributeAccessorUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+final class Aggregator {
+
+    private final QueryAction action;
+
+    private long count;
+
+    private long longSum;
+
+    private double doubleSum;
+
+    private boolean floating;
+
+    private Object extreme;
+
+    Aggregator(QueryAction action) {
+        this.action = action;
+    }
+
+    static Object aggregate(Stream<?> rows, DynamicQueryDefinition query, @Nullable Class<?> rootType) {
+        QueryAction action = query.action();
+        AttributeAccessor value = query.aggregateField() == null
+                ? row -> row
+                : accessor(rootType, query.aggregateField());
+        if (query.groupBy() == null) {
+            return rows.collect(Collector.of(
+                    () -> new Aggregator(action),
+                    (aggregator, row) -> aggregator.accept(value.get(row)),
+                    Aggregator::combine,
+                    Aggregator::result
+            ));
+        }
+        AttributeAccessor key = accessor(rootType, query.groupBy());
+        Map<Object, Aggregator> groups = rows.collect(Collector.of(
+                LinkedHashMap<Object, Aggregator>::new,
+                (map, row) -> map.computeIfAbsent(key.get(row), k -> new Aggregator(action)).accept(value.get(row)),
+                (left, right) -> {
+                    right.forEach((k, aggregator) -> left.merge(k, aggregator, Aggregator::combine));
+                    return left;
+                }
+        ));
+        Map<Object, Object> result = new LinkedHashMap<>(Math.max(16, groups.size() * 2));
+        groups.forEach((k, aggregator) -> result.put(k, aggregator.result()));
+        return result;
+    }
+
+    void accept(@Nullable Object value) {
+        if (value == null) {
+            return;
+        }
+        count++;
+        switch (action) {
+            case SUM, AVG -> {
+                if (!(value instanceof Number number)) {
+                    throw new IllegalArgumentException("Cannot " + action.name().toLowerCase() + " non-numeric value: " + value);
+                }
+                if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+                    longSum += number.longValue();
+                } else {
+                    floating = true;
+                    doubleSum += number.doubleValue();
+                }
+            }
+            case MIN -> {
+                if (extreme == null || compare(value, extreme) < 0) extreme = value;
+            }
+            case MAX -> {
+                if (extreme == null || compare(value, extreme) > 0) extreme = value;
+            }
+            default -> { }
+        }
+    }
+
+    Aggregator combine(Aggregator other) {
+        count += other.count;
+        longSum += other.longSum;
+        doubleSum += other.doubleSum;
+        floating |= other.floating;
+        if (other.extreme != null) {
+            if (extreme == null
+                    || (action == QueryAction.MIN && compare(other.extreme, extreme) < 0)
+                    || (action == QueryAction.MAX && compare(other.extreme, extreme) > 0)) {
+                extreme = other.extreme;
+            }
+        }
+        return this;
+    }
+
+    @Nullable
+    Object result() {
+        return switch (action) {
+            case SUM -> floating ? doubleSum + longSum : (Object) longSum;
+            case AVG -> count == 0 ? null : (doubleSum + longSum) / count;
+            case MIN, MAX -> extreme;
+            default -> count;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        if (!(a instanceof Comparable<?>)) {
+            throw new IllegalArgumentException("Cannot compare non-comparable value: " + a);
+        }
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static AttributeAccessor accessor(@Nullable Class<?> rootType, String path) {
+        return rootType != null
+                ? AttributeAccessorUtil.resolve(rootType, path)
+                : row -> AttributeAccessorUtil.getValue(row, path);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package xyz.quartzframework.data.query;
+
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.entity.AttributeAccessor;
+
+import java.util.*;
+
+public record AttributeStatistics(
+        long population,
+        int sampleSize,
+        double nullFraction,
+        int distinctValues,
+        @Nullable Object[] histogram
+) {
+
+    private static final double UNKNOWN_SELECTIVITY = 0.33;
+
+    @SuppressWarnings("unchecked")
+    public static AttributeStatistics sample(Collection<?> source, AttributeAccessor accessor, int maxSamples) {
+        int population = source.size();
+        List<Object> values = new ArrayList<>(Math.min(population, maxSamples));
+        int sampled = 0;
+        int nulls = 0;
+        int stride = source instanceof RandomAccess ? Math.max(1, population / maxSamples) : 1;
+        if (source instanceof List<?> list && source instanceof RandomAccess) {
+            for (int i = 0; i < population && sampled < maxSamples; i += stride, sampled++) {
+                if (!collect(accessor, list.get(i), values)) nulls++;
+            }
+        } else {
+            for (Iterator<?> it = source.iterator(); it.hasNext() && sampled < maxSamples; sampled++) {
+                if (!collect(accessor, it.next(), values)) nulls++;
+            }
+        }
+        Object[] histogram = null;
+        if (!values.isEmpty() && values.get(0) instanceof Comparable<?>) {
+            Class<?> type = values.get(0).getClass();
+            if (values.stream().allMatch(type::isInstance)) {
+                histogram = values.toArray();
+                Arrays.sort(histogram, (a, b) -> ((Comparable<Object>) a).compareTo(b));
+            }
+        }
+        return new AttributeStatistics(
+                population,
+                sampled,
+                sampled == 0 ? 0 : (double) nulls / sampled,
+                new HashSet<>(values).size(),
+                histogram
+        );
+    }
+
+    public double selectivity(Operation operation, @Nullable Object value) {
+        if (sampleSize == 0) {
+            return UNKNOWN_SELECTIVITY;
+        }
+        return switch (operation) {
+            case IS_NULL -> nullFraction;
+            case IS_NOT_NULL -> 1 - nullFraction;
+            case EQUAL -> equality(value);
+            case NOT_EQUAL -> 1 - equality(value);
+            case IN -> value instanceof Collection<?> values ? clamp(values.stream().mapToDouble(this::equality).sum()) : UNKNOWN_SELECTIVITY;
+            case NOT_IN -> value instanceof Collection<?> values ? 1 - clamp(values.stream().mapToDouble(this::equality).sum()) : UNKNOWN_SELECTIVITY;
+            case GREATER_THAN -> range(value, false, null, false);
+            case GREATER_THAN_OR_EQUAL -> range(value, true, null, false);
+            case LESS_THAN -> range(null, false, value, false);
+            case LESS_THAN_OR_EQUAL -> range(null, false, value, true);
+            case LIKE -> 0.1;
+            case NOT_LIKE -> 0.9;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public double range(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive) {
+        if (histogram == null || (from != null && !histogram[0].getClass().isInstance(from))
+                || (to != null && !histogram[0].getClass().isInstance(to))) {
+            return UNKNOWN_SELECTIVITY;
+        }
+        int lower = from == null ? 0 : position((Comparable<Object>) from, !fromInclusive);
+        int upper = to == null ? histogram.length : position((Comparable<Object>) to, toInclusive);
+        double fraction = Math.max(0, upper - lower) / (double) histogram.length;
+        return fraction * (1 - nullFraction);
+    }
+
+    private double equality(@Nullable Object value) {
+        if (value == null) {
+            return nullFraction;
+        }
+        if (histogram != null && histogram[0].getClass().isInstance(value)) {
+            double frequency = range(value, true, value, true);
+            if (frequency > 0) {
+                return frequency;
+            }
+        }
+        int nonNull = (int) Math.round(sampleSize * (1 - nullFraction));
+        if (distinctValues == 0) {
+            return 0;
+        }
+        if (distinctValues >= nonNull) {
+            return 1.0 / Math.max(population, 1);
+        }
+        return (1 - nullFraction) / distinctValues;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int position(Comparable<Object> value, boolean after) {
+        int low = 0;
+        int high = histogram.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = value.compareTo(histogram[mid]);
+            if (cmp > 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean collect(AttributeAccessor accessor, Object entity, List<Object> values) {
+        Object value;
+        try {
+            value = accessor.get(entity);
+        } catch (Exception e) {
+            value = null;
+        }
+        if (value == null) {
+            return false;
+        }
+        values.add(value);
+        return true;
+    }
+
+    private static double clamp(double selectivity) {
+        return Math.min(1, Math.max(0, selectivity));
+    }
+}
\ No newline at end of file
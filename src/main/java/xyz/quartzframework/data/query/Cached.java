@@ -0,0 +1,14 @@
+package xyz.quartzframework.data.query;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+
+    int maximumSize() default 1024;
+
+}
\ No newline at end of file
@@ -27,12 +27,16 @@ public class CompositeQueryParser implements QueryParser {
 
     @Override
     public DynamicQueryDefinition parse(Method method, StorageDefinition storageDefinition) {
+        return resolve(method).parse(method, storageDefinition);
+    }
+
+    public QueryParser resolve(Method method) {
         for (QueryParser parser : parsers) {
             if (parser.getClass().equals(CompositeQueryParser.class)) {
                 continue;
             }
             if (parser.supports(method)) {
-                return parser.parse(method, storageDefinition);
+                return parser;
             }
         }
         throw new IllegalStateException("No QueryParser could handle method: " + method.getName());
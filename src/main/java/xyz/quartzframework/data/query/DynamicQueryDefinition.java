@@ -16,5 +16,33 @@ public record DynamicQueryDefinition(
     boolean nativeSQL,
     @Nullable String raw,
     Class<?> returnType,
-    @Nullable String projectionFields
-) {}
\ No newline at end of file
+    @Nullable String projectionFields,
+    @Nullable String aggregateField,
+    @Nullable String groupBy,
+    List<QueryAssignment> assignments
+) {
+
+    public DynamicQueryDefinition(
+            Method method,
+            QueryAction action,
+            List<QuerySubstitution> querySubstitutions,
+            List<QueryCondition> queryConditions,
+            List<Order> orders,
+            @Nullable Integer limit,
+            boolean distinct,
+            boolean nativeSQL,
+            @Nullable String raw,
+            Class<?> returnType,
+            @Nullable String projectionFields
+    ) {
+        this(method, action, querySubstitutions, queryConditions, orders, limit, distinct, nativeSQL, raw, returnType, projectionFields, null, null, List.of());
+    }
+
+    public boolean isAggregate() {
+        return action.isAggregate() || groupBy != null;
+    }
+
+    public DynamicQueryDefinition withWindow(List<Order> orders, @Nullable Integer limit) {
+        return new DynamicQueryDefinition(method, action, querySubstitutions, queryConditions, orders, limit, distinct, nativeSQL, raw, returnType, projectionFields, aggregateField, groupBy, assignments);
+    }
+}
\ No newline at end of file
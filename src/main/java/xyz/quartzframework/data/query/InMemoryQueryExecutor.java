@@ -3,16 +3,39 @@ package xyz.quartzframework.data.query;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.data.entity.Attribute;
+import xyz.quartzframework.data.entity.AttributeAccessor;
+import xyz.quartzframework.data.entity.AttributeWriter;
+import xyz.quartzframework.data.index.AttributeIndex;
+import xyz.quartzframework.data.index.SortedAttributeIndex;
+import xyz.quartzframework.data.metrics.ScanTracker;
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.CursorRequest;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.storage.QueryableStorage;
+import xyz.quartzframework.data.util.AttributeAccessorUtil;
+import xyz.quartzframework.data.util.CursorCodec;
+import xyz.quartzframework.data.util.IdentityUtil;
 import xyz.quartzframework.data.util.ParameterBindingUtil;
+import xyz.quartzframework.data.util.SortUtil;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 @SuppressWarnings("unchecked")
@@ -20,26 +43,516 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
 
     private final Collection<E> source;
 
+    @Nullable
+    @Getter
+    private final QueryableStorage<E, Object> storage;
+
     @Getter
     private final Class<E> entityType;
 
+    private final Map<Method, Integer> parallelThresholds = new ConcurrentHashMap<>();
+
+    private final Set<String> identityAttributes;
+
+    @Nullable
+    private final String identityField;
+
+    private final QueryPlanner planner;
+
+    private final Map<Method, Plan> plans = new ConcurrentHashMap<>();
+
+    private final QueryPlanner.Estimator<BoundCondition> terms = new QueryPlanner.Estimator<>() {
+        @Override
+        public double selectivity(BoundCondition term) {
+            return planner.selectivity(term.condition(), term.value());
+        }
+
+        @Override
+        public double cost(BoundCondition term) {
+            return planner.cost(term.condition(), term.value());
+        }
+    };
+
+    private final QueryPlanner.Estimator<List<BoundCondition>> branches = new QueryPlanner.Estimator<>() {
+        @Override
+        public double selectivity(List<BoundCondition> branch) {
+            double matches = 1;
+            for (BoundCondition term : branch) {
+                matches *= terms.selectivity(term);
+            }
+            return 1 - matches;
+        }
+
+        @Override
+        public double cost(List<BoundCondition> branch) {
+            double cost = 0;
+            for (BoundCondition term : branch) {
+                cost += terms.cost(term);
+            }
+            return cost;
+        }
+    };
+
+    @Nullable
+    private final ForkJoinPool pool;
+
     public InMemoryQueryExecutor(Collection<E> source, Class<E> entityType) {
+        this(source, entityType, null);
+    }
+
+    public InMemoryQueryExecutor(Collection<E> source, Class<E> entityType, @Nullable ForkJoinPool pool) {
         this.source = List.copyOf(source);
+        this.storage = null;
         this.entityType = entityType;
+        this.pool = pool;
+        this.identityAttributes = Set.of();
+        this.identityField = identityField(entityType);
+        this.planner = new QueryPlanner(this.source, entityType, () -> 0L);
+    }
+
+    public InMemoryQueryExecutor(QueryableStorage<E, ?> storage) {
+        this(storage, null);
+    }
+
+    public InMemoryQueryExecutor(QueryableStorage<E, ?> storage, @Nullable ForkJoinPool pool) {
+        this.source = storage.values();
+        this.storage = (QueryableStorage<E, Object>) storage;
+        this.entityType = storage.getEntityClass();
+        this.pool = pool;
+        this.identityAttributes = identityAttributes(entityType);
+        this.identityField = identityField(entityType);
+        this.planner = new QueryPlanner(source, entityType, storage::getVersion);
     }
 
     @Override
     public <R> List<R> find(DynamicQueryDefinition query, Object[] args) {
-        List<E> result = new ArrayList<>(source);
+        List<List<BoundCondition>> groups = bind(query, args);
+        if (query.orders().isEmpty()) {
+            Stream<R> results = project(unordered(query, groups, predicate(query, groups), true), query);
+            return inPool(() -> results.collect(Collectors.toList()));
+        }
+        List<E> result = ordered(query, groups, predicate(query, groups), null);
+        Function<E, Object> projector = projector(query);
+        if (projector != null) {
+            return (List<R>) result.stream().map(projector).collect(Collectors.toList());
+        }
+        return (List<R>) result;
+    }
+
+    private List<E> ordered(DynamicQueryDefinition query, List<List<BoundCondition>> groups, Predicate<E> predicate, @Nullable Bounds seek) {
+        List<E> result;
+        SortedAttributeIndex<Object> orderIndex = orderIndex(query, groups);
+        if (orderIndex != null) {
+            result = orderedScan(query, groups, predicate, orderIndex, seek);
+        } else {
+            Collection<E> candidates = indexedCandidates(groups);
+            Collection<E> scanned = candidates == null ? source : candidates;
+            ScanTracker.add(candidates == null ? QueryExplanation.AccessPath.FULL_SCAN : QueryExplanation.AccessPath.INDEX_LOOKUP, scanned.size());
+            Comparator<E> comparator = comparator(query.orders());
+            boolean parallel = isParallel(query, scanned.size());
+            if (!query.distinct() && query.limit() != null && query.limit() > 0) {
+                int limit = query.limit();
+                result = inPool(() -> (parallel ? scanned.parallelStream() : scanned.stream())
+                        .filter(predicate)
+                        .collect(SortUtil.top(comparator, limit)));
+            } else if (parallel) {
+                result = inPool(() -> scanned.parallelStream().filter(predicate).sorted(comparator).collect(Collectors.toList()));
+            } else {
+                result = scanned.stream().filter(predicate).collect(Collectors.toList());
+                result.sort(comparator);
+            }
+        }
+
+        if (query.distinct()) {
+            result = new ArrayList<>(new LinkedHashSet<>(result));
+        }
+
+        if (query.limit() != null && query.limit() > 0 && result.size() > query.limit()) {
+            result = result.subList(0, query.limit());
+        }
+        return result;
+    }
+
+    @Override
+    public <R> Stream<R> stream(DynamicQueryDefinition query, Object[] args) {
+        if (!query.orders().isEmpty()) {
+            return this.<R>find(query, args).stream();
+        }
+        List<List<BoundCondition>> groups = bind(query, args);
+        return project(unordered(query, groups, predicate(query, groups), false), query);
+    }
+
+    @Override
+    public <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination) {
+        List<Order> orders = orders(query, pagination.sort());
+        if (Pagination.isUnpaged(pagination)) {
+            List<R> results = find(query.withWindow(orders, query.limit()), args);
+            return Page.of(results, pagination, results.size());
+        }
+        long end = (long) pagination.offset() + pagination.size();
+        boolean capped = query.limit() != null && query.limit() > 0 && query.limit() <= end;
+        int window = capped ? query.limit() : (int) Math.min(end, Integer.MAX_VALUE);
+        if (window == 0) {
+            return Page.of(List.of(), pagination, count(query, args));
+        }
+        List<R> results = find(query.withWindow(orders, window), args);
+        long total = capped || results.size() < window ? results.size() : count(query, args);
+        int from = Math.min(pagination.offset(), results.size());
+        return Page.of(results.subList(from, results.size()), pagination, total);
+    }
+
+    @Override
+    public <R> CursorPage<R> find(DynamicQueryDefinition query, Object[] args, CursorRequest request) {
+        List<Order> orders = keysetOrders(query, request.sort());
+        AttributeAccessor[] keys = orders.stream()
+                .map(order -> AttributeAccessorUtil.resolve(entityType, order.property()))
+                .toArray(AttributeAccessor[]::new);
+        int fingerprint = fingerprint(orders);
+        List<List<BoundCondition>> groups = bind(query, args);
+        Predicate<E> predicate = predicate(query, groups);
+        Bounds seek = null;
+        long returned = 0;
+        if (!request.isFirst()) {
+            CursorCodec.Position position = CursorCodec.decode(request.cursor(), fingerprint, keyTypes(orders));
+            returned = position.returned();
+            Object[] after = position.keys().toArray();
+            predicate = predicate.and(entity -> compareKeys(orders, keys, entity, after) > 0);
+            if (after[0] != null) {
+                seek = new Bounds();
+                if (orders.get(0).descending()) {
+                    seek.upper(after[0], true);
+                    seek.nulls = true;
+                } else {
+                    seek.lower(after[0], true);
+                }
+            }
+        }
+        boolean limited = query.limit() != null && query.limit() > 0;
+        int size = limited ? (int) Math.max(0, Math.min(request.size(), query.limit() - returned)) : request.size();
+        List<E> rows = size == 0 ? List.of() : ordered(query.withWindow(orders, size + 1), groups, predicate, seek);
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            if (!limited || returned + size < query.limit()) {
+                E last = rows.get(size - 1);
+                List<Object> values = new ArrayList<>(keys.length);
+                for (AttributeAccessor key : keys) {
+                    values.add(key.get(last));
+                }
+                next = CursorCodec.encode(fingerprint, returned + size, values);
+            }
+        }
+        Function<E, Object> projector = projector(query);
+        List<R> content = (List<R>) (projector == null ? List.copyOf(rows) : rows.stream().map(projector).collect(Collectors.toList()));
+        return new CursorPage<>(content, request.size(), request.sort(), next);
+    }
+
+    private List<Order> keysetOrders(DynamicQueryDefinition query, Sort sort) {
+        List<Order> orders = new ArrayList<>(orders(query, sort));
+        if (identityField == null) {
+            throw new IllegalStateException("Keyset pagination requires an @Identity field on " + entityType.getName());
+        }
+        if (orders.stream().noneMatch(order -> order.property().equals(identityField) || identityAttributes.contains(order.property()))) {
+            orders.add(new Order(identityField, false));
+        }
+        return orders;
+    }
+
+    private List<Class<?>> keyTypes(List<Order> orders) {
+        List<Class<?>> types = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            try {
+                types.add(AttributeAccessorUtil.resolveType(entityType, order.property()));
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException("Unknown sort property: " + order.property(), e);
+            }
+        }
+        return types;
+    }
+
+    private static int fingerprint(List<Order> orders) {
+        int hash = 1;
+        for (Order order : orders) {
+            hash = 31 * hash + order.property().hashCode();
+            hash = 31 * hash + (order.descending() ? 1 : 0);
+        }
+        return hash;
+    }
+
+    private int compareKeys(List<Order> orders, AttributeAccessor[] keys, E entity, Object[] after) {
+        for (int i = 0; i < keys.length; i++) {
+            int cmp = compare(keys[i].get(entity), after[i], orders.get(i).descending());
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+
+    private List<Order> orders(DynamicQueryDefinition query, Sort sort) {
+        if (!sort.isSorted()) {
+            return query.orders();
+        }
+        List<Order> orders = new ArrayList<>(query.orders());
+        for (Sort.Order order : sort.getOrders()) {
+            if (orders.stream().noneMatch(existing -> existing.property().equals(order.property()))) {
+                orders.add(new Order(order.property(), order.direction() == Sort.Direction.DESC));
+            }
+        }
+        return orders;
+    }
+
+    @Override
+    public long count(DynamicQueryDefinition query, Object[] args) {
+        List<List<BoundCondition>> groups = bind(query, args);
+        long limit = query.limit() != null && query.limit() > 0 ? query.limit() : Long.MAX_VALUE;
+        Integer indexed = query.distinct() ? null : indexedCount(groups);
+        if (indexed != null) {
+            ScanTracker.add(QueryExplanation.AccessPath.INDEX_COUNT, 0);
+            return Math.min(indexed, limit);
+        }
+        Predicate<E> predicate = counted(predicate(query, groups));
+        Collection<E> candidates = indexedCandidates(groups);
+        Collection<E> scanned = candidates == null ? source : candidates;
+        ScanTracker.add(candidates == null ? QueryExplanation.AccessPath.FULL_SCAN : QueryExplanation.AccessPath.INDEX_LOOKUP, 0);
+        if (isParallel(query, scanned.size())) {
+            Stream<E> matches = scanned.parallelStream().filter(predicate);
+            Stream<E> counted = query.distinct() ? matches.distinct() : matches;
+            return Math.min(inPool(counted::count), limit);
+        }
+        Set<E> seen = query.distinct() ? new HashSet<>() : null;
+        long count = 0;
+        for (E entity : scanned) {
+            if (predicate.test(entity) && (seen == null || seen.add(entity)) && ++count >= limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean exists(DynamicQueryDefinition query, Object[] args) {
+        List<List<BoundCondition>> groups = bind(query, args);
+        Predicate<E> predicate = counted(predicate(query, groups));
+        Collection<Object> ids = candidateIds(groups);
+        ScanTracker.add(accessPath(ids), 0);
+        if (ids != null) {
+            Predicate<Object> found = id -> storage.findById(id).filter(predicate).isPresent();
+            if (isParallel(query, ids.size())) {
+                return inPool(() -> ids.parallelStream().anyMatch(found));
+            }
+            for (Object id : ids) {
+                if (found.test(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (isParallel(query, source.size())) {
+            return inPool(() -> source.parallelStream().anyMatch(predicate));
+        }
+        for (E entity : source) {
+            if (predicate.test(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object aggregate(DynamicQueryDefinition query, Object[] args) {
+        List<List<BoundCondition>> groups = bind(query, args);
+        Stream<E> matches = unordered(query, groups, predicate(query, groups), true);
+        return inPool(() -> Aggregator.aggregate(matches, query, entityType));
+    }
+
+    @Override
+    public long delete(DynamicQueryDefinition query, Object[] args) {
+        QueryableStorage<E, Object> target = modifiable();
+        List<List<BoundCondition>> groups = bind(query, args);
+        Collection<Object> ids = candidateIds(groups);
+        ScanTracker.add(accessPath(ids), ids == null ? source.size() : ids.size());
+        return target.removeIf(ids, predicate(query, groups));
+    }
+
+    @Override
+    public long update(DynamicQueryDefinition query, Object[] args) {
+        QueryableStorage<E, Object> target = modifiable();
+        List<List<BoundCondition>> groups = bind(query, args);
+        List<AttributeWriter> writers = new ArrayList<>(query.assignments().size());
+        List<Object> values = new ArrayList<>(query.assignments().size());
+        for (QueryAssignment assignment : query.assignments()) {
+            writers.add(AttributeAccessorUtil.resolveWriter(entityType, assignment.attribute()));
+            values.add(resolveValue(query, assignment.value(), args));
+        }
+        Collection<Object> ids = candidateIds(groups);
+        ScanTracker.add(accessPath(ids), ids == null ? source.size() : ids.size());
+        return target.updateIf(ids, predicate(query, groups), entity -> {
+            for (int i = 0; i < writers.size(); i++) {
+                writers.get(i).set(entity, values.get(i));
+            }
+        });
+    }
+
+    private QueryableStorage<E, Object> modifiable() {
+        if (storage == null) {
+            throw new UnsupportedOperationException("Bulk modifications require a queryable storage, not a snapshot");
+        }
+        return storage;
+    }
+
+    @Override
+    public QueryExplanation explain(DynamicQueryDefinition query, Object[] args) {
+        ScanTracker.Scan suspended = ScanTracker.suspend();
+        try {
+            return explained(query, args);
+        } finally {
+            ScanTracker.resume(suspended);
+        }
+    }
 
-        List<List<Predicate<E>>> orGroups = new ArrayList<>();
-        List<Predicate<E>> currentGroup = new ArrayList<>();
+    private QueryExplanation explained(DynamicQueryDefinition query, Object[] args) {
+        long started = System.nanoTime();
+        List<List<BoundCondition>> groups = bind(query, args);
+        List<List<BoundCondition>> plan = groups.isEmpty() ? groups : plan(query, groups);
+        Predicate<E> filter = predicate(query, groups);
+        LongAdder scanned = new LongAdder();
+        LongAdder matched = new LongAdder();
+        Predicate<E> probe = entity -> {
+            scanned.increment();
+            if (!filter.test(entity)) {
+                return false;
+            }
+            matched.increment();
+            return true;
+        };
+        Collection<Object> ids = candidateIds(groups);
+        QueryExplanation.AccessPath access = accessPath(ids);
+        QueryExplanation.SortStrategy sort = QueryExplanation.SortStrategy.NONE;
+        boolean parallel = isParallel(query, ids == null ? source.size() : ids.size());
+        long planned = System.nanoTime();
+        long returned;
+        Integer indexed = query.action() == QueryAction.COUNT && !query.distinct() && !query.isAggregate() ? indexedCount(groups) : null;
+        if (query.isAggregate()) {
+            Stream<E> matches = unordered(query, groups, probe, true);
+            Object result = inPool(() -> Aggregator.aggregate(matches, query, entityType));
+            returned = result instanceof Map<?, ?> map ? map.size() : result == null ? 0 : 1;
+        } else if (indexed != null) {
+            access = QueryExplanation.AccessPath.INDEX_COUNT;
+            matched.add(indexed);
+            returned = 1;
+        } else if (query.action() == QueryAction.EXISTS) {
+            unordered(query, groups, probe, false).findAny();
+            returned = 1;
+        } else if (query.action() != QueryAction.FIND) {
+            Stream<E> affectedRows = unordered(query, groups, probe, true);
+            long affected = inPool(affectedRows::count);
+            returned = query.action().isModifying() ? affected : 1;
+        } else if (query.orders().isEmpty()) {
+            Stream<E> rows = unordered(query, groups, probe, true);
+            returned = inPool(rows::count);
+        } else {
+            SortedAttributeIndex<Object> orderIndex = orderIndex(query, groups);
+            if (orderIndex != null) {
+                access = QueryExplanation.AccessPath.ORDERED_INDEX_SCAN;
+                sort = QueryExplanation.SortStrategy.ORDERED_INDEX;
+                parallel = false;
+            } else if (!query.distinct() && query.limit() != null && query.limit() > 0) {
+                sort = QueryExplanation.SortStrategy.TOP_K;
+            } else {
+                sort = QueryExplanation.SortStrategy.FULL_SORT;
+            }
+            returned = ordered(query, groups, probe, null).size();
+        }
+        long finished = System.nanoTime();
+        List<List<String>> conditions = plan.stream()
+                .map(group -> group.stream().map(bound -> bound.condition().getRawCondition()).toList())
+                .toList();
+        return new QueryExplanation(
+                query.raw() != null ? query.raw() : query.method() != null ? query.method().getName() : query.action().name(),
+                query.action(),
+                conditions,
+                access,
+                sort,
+                parallel,
+                scanned.sum(),
+                matched.sum(),
+                returned,
+                Duration.ofNanos(planned - started),
+                Duration.ofNanos(finished - planned)
+        );
+    }
+
+    private static QueryExplanation.AccessPath accessPath(@Nullable Collection<Object> ids) {
+        return ids == null ? QueryExplanation.AccessPath.FULL_SCAN : QueryExplanation.AccessPath.INDEX_LOOKUP;
+    }
+
+    private Stream<E> unordered(DynamicQueryDefinition query, List<List<BoundCondition>> groups, Predicate<E> predicate, boolean allowParallel) {
+        Collection<Object> ids = candidateIds(groups);
+        ScanTracker.add(accessPath(ids), 0);
+        Stream<E> stream;
+        if (ids == null) {
+            stream = allowParallel && isParallel(query, source.size()) ? source.parallelStream() : source.stream();
+        } else {
+            Stream<Object> idStream = allowParallel && isParallel(query, ids.size()) ? ids.parallelStream() : ids.stream();
+            stream = idStream.map(storage::findById).flatMap(Optional::stream);
+        }
+        stream = stream.filter(counted(predicate));
+        if (query.distinct()) {
+            stream = stream.distinct();
+        }
+        if (query.limit() != null && query.limit() > 0) {
+            stream = stream.limit(query.limit());
+        }
+        return stream;
+    }
+
+    /**
+     * Counts rows against the tracked scan as they are tested, so short-circuiting queries
+     * (exists, findFirst, limits) report the rows they actually touched.
+     */
+    private Predicate<E> counted(Predicate<E> predicate) {
+        ScanTracker.Scan scan = ScanTracker.current();
+        if (scan == null) {
+            return predicate;
+        }
+        return entity -> {
+            scan.increment();
+            return predicate.test(entity);
+        };
+    }
+
+    private <R> Stream<R> project(Stream<E> stream, DynamicQueryDefinition query) {
+        Function<E, Object> projector = projector(query);
+        return (Stream<R>) (projector == null ? stream : stream.map(projector));
+    }
+
+    private boolean isParallel(DynamicQueryDefinition query, int size) {
+        Method method = query.method();
+        if (method == null) {
+            return false;
+        }
+        int threshold = parallelThresholds.computeIfAbsent(method, m -> {
+            Parallel parallel = m.getAnnotation(Parallel.class);
+            if (parallel == null) {
+                parallel = m.getDeclaringClass().getAnnotation(Parallel.class);
+            }
+            return parallel == null ? -1 : parallel.threshold();
+        });
+        return threshold >= 0 && size >= threshold;
+    }
+
+    private <T> T inPool(Supplier<T> task) {
+        return pool == null ? task.get() : pool.submit(task::get).join();
+    }
+
+    private List<List<BoundCondition>> bind(DynamicQueryDefinition query, Object[] args) {
+        List<List<BoundCondition>> groups = new ArrayList<>();
+        List<BoundCondition> currentGroup = new ArrayList<>();
         List<QuerySubstitution> substitutions = query.querySubstitutions();
         int subIndex = 0;
 
         for (QueryCondition condition : query.queryConditions()) {
-            QuerySubstitution sub = null;
             Object value = null;
+            boolean argument = false;
 
             boolean expectsValue = switch (condition.getOperation()) {
                 case IS_NULL, IS_NOT_NULL -> false;
@@ -47,123 +560,453 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
             };
 
             if (expectsValue) {
-                sub = subIndex < substitutions.size() ? substitutions.get(subIndex) : null;
+                QuerySubstitution sub = subIndex < substitutions.size() ? substitutions.get(subIndex) : null;
                 subIndex++;
 
                 if (sub == null) {
                     throw new ParameterBindingException("No substitution found for condition: " + condition);
                 }
+                value = resolveValue(query, sub, args);
+                argument = !sub.isLiteral();
+            }
 
-                if (sub.isLiteral()) {
-                    value = sub.getLiteralValue();
-                } else if (sub.isNamed()) {
-                    value = ParameterBindingUtil.findNamedParameter(query.method(), sub.getNameOrIndex(), args);
-                } else {
-                    String nameOrIndex = sub.getNameOrIndex();
-                    if (nameOrIndex == null) {
-                        throw new ParameterBindingException("Missing substitution index for positional parameter");
-                    }
+            if (condition.isOr()) {
+                if (!currentGroup.isEmpty()) {
+                    groups.add(currentGroup);
+                    currentGroup = new ArrayList<>();
+                }
+            }
+            if ((condition.getOperation() == Operation.IN || condition.getOperation() == Operation.NOT_IN)
+                    && value instanceof Collection<?> values) {
+                value = lookupSet(condition, values);
+            }
+            AttributeAccessor accessor = AttributeAccessorUtil.resolve(entityType, condition.getAttribute().name());
+            currentGroup.add(new BoundCondition(condition, accessor, value, argument));
+        }
+        if (!currentGroup.isEmpty()) {
+            groups.add(currentGroup);
+        }
+        return groups;
+    }
 
-                    int idx;
-                    try {
-                        idx = Integer.parseInt(nameOrIndex);
-                    } catch (NumberFormatException ex) {
-                        throw new ParameterBindingException("Invalid substitution index: ?" + nameOrIndex, ex);
-                    }
+    private Set<Object> lookupSet(QueryCondition condition, Collection<?> values) {
+        Class<?> type;
+        try {
+            type = MethodType.methodType(AttributeAccessorUtil.resolveType(entityType, condition.getAttribute().name())).wrap().returnType();
+        } catch (NoSuchFieldException e) {
+            type = Object.class;
+        }
+        Set<Object> set = new HashSet<>(Math.max(16, (int) (values.size() / .75f) + 1));
+        for (Object value : values) {
+            set.add(AttributeAccessorUtil.coerce(value, type));
+        }
+        return set;
+    }
 
-                    if (idx < 0 || idx >= args.length) {
-                        throw new ParameterBindingException("Missing argument for parameter index: ?" + idx);
-                    }
+    @Nullable
+    private static String identityField(Class<?> entityType) {
+        try {
+            return IdentityUtil.findIdentityField(entityType).getName();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
 
-                    value = args[idx];
-                }
+    private static Set<String> identityAttributes(Class<?> entityType) {
+        try {
+            Field field = IdentityUtil.findIdentityField(entityType);
+            Attribute alias = field.getAnnotation(Attribute.class);
+            Set<String> names = new HashSet<>();
+            names.add(field.getName());
+            if (alias != null) {
+                names.add(alias.value());
+            }
+            return Set.copyOf(names);
+        } catch (IllegalStateException e) {
+            return Set.of();
+        }
+    }
+
+    private Object resolveValue(DynamicQueryDefinition query, QuerySubstitution sub, Object[] args) {
+        if (sub.isLiteral()) {
+            return sub.getLiteralValue();
+        }
+        if (sub.isNamed()) {
+            return sub.isBound()
+                    ? args[sub.getParameterIndex()]
+                    : ParameterBindingUtil.findNamedParameter(query.method(), sub.getNameOrIndex(), args);
+        }
+        if (sub.isBound() && sub.getParameterIndex() >= 0 && sub.getParameterIndex() < args.length) {
+            return args[sub.getParameterIndex()];
+        }
+        String nameOrIndex = sub.getNameOrIndex();
+        if (nameOrIndex == null) {
+            throw new ParameterBindingException("Missing substitution index for positional parameter");
+        }
+
+        int idx;
+        try {
+            idx = Integer.parseInt(nameOrIndex);
+        } catch (NumberFormatException ex) {
+            throw new ParameterBindingException("Invalid substitution index: ?" + nameOrIndex, ex);
+        }
+
+        if (idx < 0 || idx >= args.length) {
+            throw new ParameterBindingException("Missing argument for parameter index: ?" + idx);
+        }
+        return args[idx];
+    }
+
+    private Predicate<E> predicate(DynamicQueryDefinition query, List<List<BoundCondition>> groups) {
+        if (groups.isEmpty()) {
+            return entity -> true;
+        }
+        return plan(query, groups).stream()
+                .map(group -> group.stream().map(this::predicate).reduce(x -> true, Predicate::and))
+                .reduce(x -> false, Predicate::or);
+    }
+
+    private List<List<BoundCondition>> plan(DynamicQueryDefinition query, List<List<BoundCondition>> groups) {
+        if (groups.size() == 1 && groups.get(0).size() == 1) {
+            return groups;
+        }
+        Method method = query.method();
+        Plan cached = method == null ? null : plans.get(method);
+        if (cached != null && cached.conditions() == query.queryConditions() && planner.isCurrent(cached.stamp())) {
+            return reuse(cached, groups);
+        }
+        List<List<BoundCondition>> ranked = new ArrayList<>(groups.size());
+        for (List<BoundCondition> group : groups) {
+            List<BoundCondition> branch = new ArrayList<>(group);
+            planner.order(branch, terms);
+            ranked.add(branch);
+        }
+        planner.order(ranked, branches);
+        if (method != null) {
+            plans.put(method, Plan.of(query.queryConditions(), groups, ranked, planner.stamp()));
+        }
+        return ranked;
+    }
+
+    private List<List<BoundCondition>> reuse(Plan plan, List<List<BoundCondition>> groups) {
+        List<List<BoundCondition>> ranked = new ArrayList<>(groups.size());
+        for (int g : plan.branchOrder()) {
+            List<BoundCondition> group = groups.get(g);
+            List<BoundCondition> branch = new ArrayList<>(group.size());
+            for (int t : plan.termOrder()[g]) {
+                branch.add(group.get(t));
+            }
+            if (plan.variable()[g]) {
+                planner.order(branch, terms);
             }
+            ranked.add(branch);
+        }
+        if (plan.reorder()) {
+            planner.order(ranked, branches);
+        }
+        return ranked;
+    }
 
-            Object finalValue = value;
-            Predicate<E> predicate = entity -> {
+    private Predicate<E> predicate(BoundCondition bound) {
+        QueryCondition condition = bound.condition();
+        AttributeAccessor accessor = bound.accessor();
+        Object value = bound.value();
+        Operation operation = condition.getOperation();
+        if ((operation == Operation.LIKE || operation == Operation.NOT_LIKE) && value instanceof String pattern) {
+            LikeMatcher matcher = LikeMatcher.compile(pattern, condition.isIgnoreCase());
+            boolean expected = operation == Operation.LIKE;
+            return entity -> {
                 try {
-                    Object fieldValue = getNestedFieldValue(entity, condition.getAttribute().name());
-                    return match(fieldValue, condition.getOperation(), finalValue, condition);
+                    return accessor.get(entity) instanceof String str && matcher.matches(str) == expected;
                 } catch (Exception e) {
                     log.warn("Failed to evaluate condition on entity: {}", entity, e);
                     return false;
                 }
             };
+        }
+        return entity -> {
+            try {
+                Object fieldValue = accessor.get(entity);
+                return match(fieldValue, condition.getOperation(), value, condition);
+            } catch (Exception e) {
+                log.warn("Failed to evaluate condition on entity: {}", entity, e);
+                return false;
+            }
+        };
+    }
 
-            if (condition.isOr()) {
-                if (!currentGroup.isEmpty()) {
-                    orGroups.add(currentGroup);
-                    currentGroup = new ArrayList<>();
+    private Comparator<E> comparator(List<Order> orders) {
+        AttributeAccessor[] accessors = orders.stream()
+                .map(order -> AttributeAccessorUtil.resolve(entityType, order.property()))
+                .toArray(AttributeAccessor[]::new);
+        return (a, b) -> {
+            for (int i = 0; i < accessors.length; i++) {
+                Order order = orders.get(i);
+                try {
+                    int cmp = compare(accessors[i].get(a), accessors[i].get(b), order.descending());
+                    if (cmp != 0) return cmp;
+                } catch (Exception e) {
+                    log.warn("Ordering failed for properties: {}", order.property(), e);
                 }
             }
-            currentGroup.add(predicate);
-        }
-        if (!currentGroup.isEmpty()) {
-            orGroups.add(currentGroup);
+            return 0;
+        };
+    }
+
+    private static int compare(@Nullable Object va, @Nullable Object vb, boolean descending) {
+        if (va == null && vb == null) return 0;
+        if (va == null) return descending ? 1 : -1;
+        if (vb == null) return descending ? -1 : 1;
+        if (va instanceof Comparable<?> && va.getClass().equals(vb.getClass())) {
+            int cmp = ((Comparable<Object>) va).compareTo(vb);
+            return descending ? -cmp : cmp;
         }
+        return 0;
+    }
 
-        Predicate<E> finalPredicate = orGroups.stream()
-                .map(group -> group.stream().reduce(x -> true, Predicate::and))
-                .reduce(x -> false, Predicate::or);
+    @Nullable
+    private SortedAttributeIndex<Object> orderIndex(DynamicQueryDefinition query, List<List<BoundCondition>> groups) {
+        if (storage == null || query.orders().isEmpty() || groups.size() > 1) {
+            return null;
+        }
+        AttributeIndex<Object> index = storage.getIndex(query.orders().get(0).property());
+        if (!(index instanceof SortedAttributeIndex<Object> sorted)) {
+            return null;
+        }
+        if (!groups.isEmpty()) {
+            for (BoundCondition bound : groups.get(0)) {
+                if (isPointLookup(bound)) {
+                    return null;
+                }
+            }
+        }
+        return sorted;
+    }
 
-        result = result.stream().filter(finalPredicate).collect(Collectors.toList());
+    private boolean isPointLookup(BoundCondition bound) {
+        QueryCondition condition = bound.condition();
+        if (condition.isIgnoreCase()) {
+            return false;
+        }
+        return switch (condition.getOperation()) {
+            case EQUAL, IN -> identityAttributes.contains(condition.getAttributeName()) || storage.getIndex(condition.getAttributeName()) != null;
+            case IS_NULL -> storage.getIndex(condition.getAttributeName()) != null;
+            default -> false;
+        };
+    }
 
-        if (!query.orders().isEmpty()) {
-            result.sort((a, b) -> {
-                for (Order order : query.orders()) {
-                    try {
-                        Object va = getNestedFieldValue(a, order.property());
-                        Object vb = getNestedFieldValue(b, order.property());
-                        if (va == null && vb == null) continue;
-                        if (va == null) return order.descending() ? 1 : -1;
-                        if (vb == null) return order.descending() ? -1 : 1;
-                        if (va instanceof Comparable<?> && va.getClass().equals(vb.getClass())) {
-                            @SuppressWarnings("unchecked")
-                            Comparable<Object> cmpA = (Comparable<Object>) va;
-                            int cmp = cmpA.compareTo(vb);
-                            if (cmp != 0) return order.descending() ? -cmp : cmp;
-                        }
-                    } catch (Exception e) {
-                        log.warn("Ordering failed for properties: {}", order.property(), e);
-                    }
+    private List<E> orderedScan(DynamicQueryDefinition query, List<List<BoundCondition>> groups, Predicate<E> predicate,
+                                SortedAttributeIndex<Object> index, @Nullable Bounds seek) {
+        List<Order> orders = query.orders();
+        Order first = orders.get(0);
+        Bounds bounds = seek == null ? new Bounds() : seek;
+        if (!groups.isEmpty()) {
+            for (BoundCondition bound : groups.get(0)) {
+                if (isRangeLookup(bound, index) && bound.condition().getAttributeName().equals(index.getAttribute())) {
+                    bounds.narrow(bound.condition().getOperation(), bound.value());
                 }
-                return 0;
-            });
+            }
+        }
+        Comparator<E> tieBreaker = orders.size() > 1 ? comparator(orders.subList(1, orders.size())) : null;
+        Integer limit = query.limit() != null && query.limit() > 0 ? query.limit() : null;
+        Collection<E> result = query.distinct() ? new LinkedHashSet<>() : new ArrayList<>();
+        Iterable<Set<Object>> buckets = index.buckets(bounds.from, bounds.fromInclusive, bounds.to, bounds.toInclusive, first.descending());
+        if (bounds.nulls && (bounds.from != null || bounds.to != null)) {
+            buckets = Stream.concat(StreamSupport.stream(buckets.spliterator(), false), Stream.of(index.get(null)))::iterator;
         }
+        for (Set<Object> bucket : buckets) {
+            List<E> chunk = new ArrayList<>(bucket.size());
+            ScanTracker.add(QueryExplanation.AccessPath.ORDERED_INDEX_SCAN, bucket.size());
+            for (Object id : bucket) {
+                storage.findById(id).filter(predicate).ifPresent(chunk::add);
+            }
+            if (tieBreaker != null && chunk.size() > 1) {
+                chunk.sort(tieBreaker);
+            }
+            result.addAll(chunk);
+            if (limit != null && result.size() >= limit) {
+                break;
+            }
+        }
+        return result instanceof List<E> list ? list : new ArrayList<>(result);
+    }
 
-        if (query.distinct()) {
-            result = new ArrayList<>(new LinkedHashSet<>(result));
+    @Nullable
+    private Integer indexedCount(List<List<BoundCondition>> groups) {
+        if (storage == null || groups.size() != 1 || groups.get(0).size() != 1) {
+            return null;
+        }
+        BoundCondition bound = groups.get(0).get(0);
+        QueryCondition condition = bound.condition();
+        if (condition.isIgnoreCase()) {
+            return null;
         }
+        AttributeIndex<Object> index = storage.getIndex(condition.getAttributeName());
+        if (index == null) {
+            return null;
+        }
+        return switch (condition.getOperation()) {
+            case EQUAL -> index.count(bound.value());
+            case IS_NULL -> index.count(null);
+            default -> null;
+        };
+    }
 
-        if (query.limit() != null && query.limit() > 0 && result.size() > query.limit()) {
-            result = result.subList(0, query.limit());
+    @Nullable
+    private Collection<E> indexedCandidates(List<List<BoundCondition>> groups) {
+        Collection<Object> ids = candidateIds(groups);
+        if (ids == null) {
+            return null;
         }
+        List<E> entities = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            storage.findById(id).ifPresent(entities::add);
+        }
+        return entities;
+    }
 
-        if (!query.returnType().isAssignableFrom(getEntityType()) && query.projectionFields() != null) {
-            result = applyProjection(result, query);
+    @Nullable
+    private Collection<Object> candidateIds(List<List<BoundCondition>> groups) {
+        if (storage == null || groups.isEmpty()) {
+            return null;
         }
+        Collection<Object> ids = null;
+        for (List<BoundCondition> group : groups) {
+            Collection<Object> groupIds = indexedIds(group);
+            if (groupIds == null) {
+                return null;
+            }
+            if (ids == null) {
+                ids = groupIds;
+            } else {
+                if (!(ids instanceof LinkedHashSet<Object>)) {
+                    ids = new LinkedHashSet<>(ids);
+                }
+                ids.addAll(groupIds);
+            }
+        }
+        return ids;
+    }
 
-        return (List<R>) result;
+    @Nullable
+    private Collection<Object> indexedIds(List<BoundCondition> group) {
+        List<Lookup> lookups = new ArrayList<>();
+        Map<SortedAttributeIndex<Object>, Bounds> ranges = new LinkedHashMap<>();
+        for (BoundCondition bound : group) {
+            if (bound.condition().isIgnoreCase()) {
+                continue;
+            }
+            Collection<Object> keys = identityLookup(bound);
+            if (keys != null) {
+                lookups.add(new Lookup(keys.size(), () -> keys, keys instanceof Set<Object> set ? set : null));
+                continue;
+            }
+            AttributeIndex<Object> index = storage.getIndex(bound.condition().getAttributeName());
+            if (index == null) {
+                continue;
+            }
+            if (index instanceof SortedAttributeIndex<Object> sorted && isRangeLookup(bound, sorted)) {
+                ranges.computeIfAbsent(sorted, k -> new Bounds()).narrow(bound.condition().getOperation(), bound.value());
+                continue;
+            }
+            switch (bound.condition().getOperation()) {
+                case EQUAL, IS_NULL -> {
+                    Set<Object> bucket = index.get(bound.condition().getOperation() == Operation.EQUAL ? bound.value() : null);
+                    lookups.add(new Lookup(bucket.size(), () -> bucket, bucket));
+                }
+                case IN -> {
+                    if (bound.value() instanceof Collection<?> values) {
+                        long estimate = 0;
+                        for (Object value : values) {
+                            if (value != null) estimate += index.count(value);
+                        }
+                        lookups.add(new Lookup(estimate, () -> indexLookup(bound, index), null));
+                    }
+                }
+                default -> { }
+            }
+        }
+        for (Map.Entry<SortedAttributeIndex<Object>, Bounds> range : ranges.entrySet()) {
+            SortedAttributeIndex<Object> index = range.getKey();
+            Bounds bounds = range.getValue();
+            double selectivity = planner.statistics(index.getAttribute()).range(bounds.from, bounds.fromInclusive, bounds.to, bounds.toInclusive);
+            lookups.add(new Lookup(selectivity * source.size(), () -> index.range(bounds.from, bounds.fromInclusive, bounds.to, bounds.toInclusive), null));
+        }
+        Lookup driver = null;
+        for (Lookup lookup : lookups) {
+            if (driver == null || lookup.estimate() < driver.estimate()) {
+                driver = lookup;
+            }
+        }
+        if (driver == null || !planner.prefersIndex(driver.estimate())) {
+            return null;
+        }
+        Collection<Object> ids = driver.ids().get();
+        List<Set<Object>> probes = new ArrayList<>();
+        for (Lookup lookup : lookups) {
+            if (lookup != driver && lookup.probe() != null) {
+                probes.add(lookup.probe());
+            }
+        }
+        if (probes.isEmpty()) {
+            return ids;
+        }
+        List<Object> intersection = new ArrayList<>();
+        for (Object id : ids) {
+            boolean matches = true;
+            for (Set<Object> probe : probes) {
+                if (!probe.contains(id)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) intersection.add(id);
+        }
+        return intersection;
     }
 
-    @Override
-    public <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination) {
-        List<R> results = find(query, args);
-        int total = results.size();
-        int from = Math.min(pagination.offset(), total);
-        int to = Math.min(from + pagination.size(), total);
-        List<R> pageItems = results.subList(from, to);
-        return Page.of(pageItems, pagination, total);
+    @Nullable
+    private Collection<Object> identityLookup(BoundCondition bound) {
+        if (!identityAttributes.contains(bound.condition().getAttributeName())) {
+            return null;
+        }
+        Object value = bound.value();
+        return switch (bound.condition().getOperation()) {
+            case EQUAL -> value == null ? Set.of() : Set.of(value);
+            case IN -> {
+                if (!(value instanceof Collection<?> values)) yield null;
+                if (!values.contains(null)) yield (Collection<Object>) values;
+                Set<Object> ids = new HashSet<>(values);
+                ids.remove(null);
+                yield ids;
+            }
+            default -> null;
+        };
     }
 
-    @Override
-    public long count(DynamicQueryDefinition query, Object[] args) {
-        return find(query, args).size();
+    private boolean isRangeLookup(BoundCondition bound, SortedAttributeIndex<Object> index) {
+        return switch (bound.condition().getOperation()) {
+            case GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL ->
+                    !bound.condition().isIgnoreCase() && index.getKeyType().isInstance(bound.value());
+            default -> false;
+        };
     }
 
-    @Override
-    public boolean exists(DynamicQueryDefinition query, Object[] args) {
-        return !find(query, args).isEmpty();
+    @Nullable
+    private Collection<Object> indexLookup(BoundCondition bound, AttributeIndex<Object> index) {
+        return switch (bound.condition().getOperation()) {
+            case EQUAL -> index.get(bound.value());
+            case IS_NULL -> index.get(null);
+            case IN -> {
+                if (!(bound.value() instanceof Collection<?> values)) yield null;
+                Set<Object> ids = new HashSet<>();
+                for (Object value : values) {
+                    if (value != null) ids.addAll(index.get(value));
+                }
+                yield ids;
+            }
+            default -> null;
+        };
     }
 
     private boolean match(Object fieldValue, Operation operation, Object expectedValue, QueryCondition condition) {
@@ -194,23 +1037,6 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
             if (operation == Operation.LESS_THAN_OR_EQUAL && fieldValue instanceof Comparable && expectedValue != null) {
                 return ((Comparable<Object>) fieldValue).compareTo(expectedValue) <= 0;
             }
-            if ((operation == Operation.LIKE || operation == Operation.NOT_LIKE)
-                    && fieldValue instanceof String str
-                    && expectedValue instanceof String pattern) {
-                boolean matches;
-                if (!pattern.contains("%") && !pattern.contains("_")) {
-                    matches = ignoreCase
-                            ? str.toLowerCase().contains(pattern.toLowerCase())
-                            : str.contains(pattern);
-                } else {
-                    String regex = likeToRegex(pattern);
-                    Pattern p = ignoreCase
-                            ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE)
-                            : Pattern.compile(regex);
-                    matches = p.matcher(str).matches();
-                }
-                return (operation == Operation.LIKE) == matches;
-            }
             if (operation == Operation.IS_NULL) return fieldValue == null;
             if (operation == Operation.IS_NOT_NULL) return fieldValue != null;
             if (operation == Operation.IN && expectedValue instanceof Collection<?> collection) {
@@ -228,80 +1054,118 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
         return false;
     }
 
-    private Object getNestedFieldValue(Object root, String path) throws Exception {
-        String[] parts = path.split("\\.");
-        Object current = root;
-        for (String part : parts) {
-            if (current == null) return null;
-            Field field = findField(current.getClass(), part);
-            field.setAccessible(true);
-            current = field.get(current);
+    @Nullable
+    private Function<E, Object> projector(DynamicQueryDefinition query) {
+        if (query.returnType().isAssignableFrom(getEntityType()) || query.projectionFields() == null) {
+            return null;
         }
-        return current;
-    }
-
-    private Field findField(Class<?> clazz, String name) throws NoSuchFieldException {
-        while (clazz != null) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (field.getName().equals(name)) return field;
-                val alias = field.getAnnotation(Attribute.class);
-                if (alias != null && alias.value().equals(name)) return field;
-            }
-            clazz = clazz.getSuperclass();
-        }
-        throw new NoSuchFieldException("Field or @Attribute '" + name + "' not found");
-    }
-
-    private String likeToRegex(String pattern) {
-        StringBuilder regex = new StringBuilder();
-        for (char c : pattern.toCharArray()) {
-            switch (c) {
-                case '%': regex.append(".*"); break;
-                case '_': regex.append('.'); break;
-                case '\\': regex.append("\\\\"); break;
-                case '^', '$', '.', '|', '?', '*', '+', '(', ')', '[', '{':
-                    regex.append('\\').append(c); break;
-                default: regex.append(c);
-            }
-        }
-        regex.insert(0, "^");
-        regex.append("$");
-        return regex.toString();
-    }
-
-    @SuppressWarnings("unchecked")
-    private <R> List<R> applyProjection(List<E> entities, DynamicQueryDefinition query) {
         try {
-            assert query.projectionFields() != null;
             String[] fieldNames = query.projectionFields().split("\\s*,\\s*");
             Class<?> dtoClass = query.returnType();
             Class<?>[] paramTypes = new Class<?>[fieldNames.length];
+            AttributeAccessor[] accessors = new AttributeAccessor[fieldNames.length];
             for (int i = 0; i < fieldNames.length; i++) {
-                paramTypes[i] = resolveNestedFieldType(getEntityType(), fieldNames[i]);
+                paramTypes[i] = AttributeAccessorUtil.resolveType(getEntityType(), fieldNames[i]);
+                accessors[i] = AttributeAccessorUtil.resolve(getEntityType(), fieldNames[i]);
             }
             var constructor = dtoClass.getConstructor(paramTypes);
-            List<Object> projected = new ArrayList<>();
-            for (E entity : entities) {
-                Object[] values = new Object[fieldNames.length];
-                for (int i = 0; i < fieldNames.length; i++) {
-                    values[i] = getNestedFieldValue(entity, fieldNames[i]);
+            return entity -> {
+                try {
+                    Object[] values = new Object[accessors.length];
+                    for (int i = 0; i < accessors.length; i++) {
+                        values[i] = accessors[i].get(entity);
+                    }
+                    return constructor.newInstance(values);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to project result to " + dtoClass.getName(), e);
                 }
-                Object dto = constructor.newInstance(values);
-                projected.add(dto);
-            }
-
-            return (List<R>) projected;
+            };
         } catch (Exception e) {
             throw new IllegalStateException("Failed to project result to " + query.returnType().getName(), e);
         }
     }
 
-    private Class<?> resolveNestedFieldType(Class<?> rootClass, String path) throws NoSuchFieldException {
-        Class<?> current = rootClass;
-        for (String part : path.split("\\.")) {
-            Field field = findField(current, part);
-            current = field.getType();
+    private static final class Bounds {
+
+        private Object from;
+
+        private boolean fromInclusive;
+
+        private Object to;
+
+        private boolean toInclusive;
+
+        private boolean nulls;
+
+        private void narrow(Operation operation, Object value) {
+            switch (operation) {
+                case GREATER_THAN -> lower(value, false);
+                case GREATER_THAN_OR_EQUAL -> lower(value, true);
+                case LESS_THAN -> upper(value, false);
+                case LESS_THAN_OR_EQUAL -> upper(value, true);
+                default -> { }
+            }
+        }
+
+        private void lower(Object value, boolean inclusive) {
+            int cmp = from == null ? 1 : ((Comparable<Object>) value).compareTo(from);
+            if (cmp > 0 || (cmp == 0 && !inclusive)) {
+                from = value;
+                fromInclusive = inclusive;
+            }
+        }
+
+        private void upper(Object value, boolean inclusive) {
+            int cmp = to == null ? -1 : ((Comparable<Object>) value).compareTo(to);
+            if (cmp < 0 || (cmp == 0 && !inclusive)) {
+                to = value;
+                toInclusive = inclusive;
+            }
+        }
+    }
+
+    private record Lookup(double estimate, Supplier<Collection<Object>> ids, @Nullable Set<Object> probe) { }
+
+    private record BoundCondition(QueryCondition condition, AttributeAccessor accessor, @Nullable Object value, boolean argument) { }
+
+    /**
+     * Ranked evaluation order of a method's condition groups, valid for one statistics {@link QueryPlanner.Stamp}.
+     * Literal and null checks rank the same on every call, so only groups holding argument-bound terms are
+     * re-ranked, starting from the cached order.
+     */
+    private record Plan(List<QueryCondition> conditions, QueryPlanner.Stamp stamp, int[] branchOrder, int[][] termOrder,
+                        boolean[] variable, boolean reorder) {
+
+        private static Plan of(List<QueryCondition> conditions, List<List<BoundCondition>> groups,
+                               List<List<BoundCondition>> ranked, QueryPlanner.Stamp stamp) {
+            Map<BoundCondition, Integer> groupOf = new IdentityHashMap<>();
+            Map<BoundCondition, Integer> positions = new IdentityHashMap<>();
+            boolean[] variable = new boolean[groups.size()];
+            boolean reorder = false;
+            for (int g = 0; g < groups.size(); g++) {
+                List<BoundCondition> group = groups.get(g);
+                for (int t = 0; t < group.size(); t++) {
+                    BoundCondition term = group.get(t);
+                    groupOf.put(term, g);
+                    positions.put(term, t);
+                    if (term.argument()) {
+                        variable[g] = group.size() > 1;
+                        reorder = groups.size() > 1;
+                    }
+                }
+            }
+            int[] branchOrder = new int[ranked.size()];
+            int[][] termOrder = new int[groups.size()][];
+            for (int b = 0; b < ranked.size(); b++) {
+                List<BoundCondition> branch = ranked.get(b);
+                int g = groupOf.get(branch.get(0));
+                branchOrder[b] = g;
+                termOrder[g] = new int[branch.size()];
+                for (int t = 0; t < branch.size(); t++) {
+                    termOrder[g][t] = positions.get(branch.get(t));
+                }
+            }
+            return new Plan(conditions, stamp, branchOrder, termOrder, variable, reorder);
         }
-        return current;
     }
 }
\ No newline at end of file
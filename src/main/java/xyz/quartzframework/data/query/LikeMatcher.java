@@ -0,0 +1,80 @@
+package xyz.quartzframework.data.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@FunctionalInterface
+public interface LikeMatcher {
+
+    boolean matches(String value);
+
+    static LikeMatcher compile(String pattern, boolean ignoreCase) {
+        if (pattern.indexOf('_') >= 0) {
+            Pattern regex = ignoreCase
+                    ? Pattern.compile(toRegex(pattern), Pattern.CASE_INSENSITIVE)
+                    : Pattern.compile(toRegex(pattern));
+            return value -> regex.matcher(value).matches();
+        }
+        if (pattern.indexOf('%') < 0) {
+            SubstringSearch search = new SubstringSearch(pattern, ignoreCase);
+            return value -> search.indexIn(value, 0, value.length()) >= 0;
+        }
+        String[] segments = pattern.split("%", -1);
+        String prefix = segments[0];
+        String suffix = segments[segments.length - 1];
+        List<SubstringSearch> middle = new ArrayList<>();
+        for (int i = 1; i < segments.length - 1; i++) {
+            if (!segments[i].isEmpty()) {
+                middle.add(new SubstringSearch(segments[i], ignoreCase));
+            }
+        }
+        if (middle.isEmpty()) {
+            if (prefix.isEmpty() && suffix.isEmpty()) {
+                return value -> true;
+            }
+            if (suffix.isEmpty()) {
+                return value -> value.regionMatches(ignoreCase, 0, prefix, 0, prefix.length());
+            }
+            if (prefix.isEmpty()) {
+                return value -> value.regionMatches(ignoreCase, value.length() - suffix.length(), suffix, 0, suffix.length());
+            }
+        }
+        if (prefix.isEmpty() && suffix.isEmpty() && middle.size() == 1) {
+            SubstringSearch search = middle.get(0);
+            return value -> search.indexIn(value, 0, value.length()) >= 0;
+        }
+        return value -> {
+            int end = value.length() - suffix.length();
+            if (end < prefix.length()
+                    || !value.regionMatches(ignoreCase, 0, prefix, 0, prefix.length())
+                    || !value.regionMatches(ignoreCase, end, suffix, 0, suffix.length())) {
+                return false;
+            }
+            int from = prefix.length();
+            for (SubstringSearch search : middle) {
+                int at = search.indexIn(value, from, end);
+                if (at < 0) return false;
+                from = at + search.length();
+            }
+            return true;
+        };
+    }
+
+    private static String toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            switch (c) {
+                case '%': regex.append(".*"); break;
+                case '_': regex.append('.'); break;
+                case '\\': regex.append("\\\\"); break;
+                case '^', '$', '.', '|', '?', '*', '+', '(', ')', '[', '{':
+                    regex.append('\\').append(c); break;
+                default: regex.append(c);
+            }
+        }
+        regex.insert(0, "^");
+        regex.append("$");
+        return regex.toString();
+    }
+}
\ No newline at end of file
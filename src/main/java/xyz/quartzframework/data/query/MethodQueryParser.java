@@ -3,6 +3,7 @@ package xyz.quartzframework.data.query;
 import lombok.val;
 import xyz.quartzframework.data.entity.Attribute;
 import xyz.quartzframework.data.storage.StorageDefinition;
+import xyz.quartzframework.data.util.AttributeAccessorUtil;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -22,7 +23,7 @@ public class MethodQueryParser implements QueryParser {
     }
 
     private boolean isInPattern(Method method) {
-        return method.getName().matches("^(find|count|exists).*");
+        return method.getName().matches("^(find|count|exists|sum|avg|min|max|deleteBy).*");
     }
 
     @Override
@@ -53,6 +54,25 @@ public class MethodQueryParser implements QueryParser {
         val name = queryString(method);
         QueryAction action = extractAction(name);
         String stripped = stripPrefix(name, action);
+        String aggregateField = null;
+        String groupBy = null;
+        List<QueryAssignment> assignments = List.of();
+
+        int groupAt = groupSplit(stripped, storageDefinition.entityClass());
+        if (groupAt >= 0 && (action == QueryAction.COUNT || action.isAggregate())) {
+            groupBy = toNestedFieldPath(stripped.substring(groupAt + "GroupBy".length()), storageDefinition.entityClass());
+            stripped = stripped.substring(0, groupAt);
+        }
+
+        if (action.isAggregate()) {
+            int byAt = aggregateSplit(stripped, storageDefinition.entityClass());
+            String fieldPart = byAt < 0 ? stripped : stripped.substring(0, byAt);
+            if (fieldPart.isEmpty()) {
+                throw new IllegalArgumentException("Missing aggregate attribute in method: " + name);
+            }
+            aggregateField = toNestedFieldPath(fieldPart, storageDefinition.entityClass());
+            stripped = byAt < 0 ? "" : stripped.substring(byAt);
+        }
 
         boolean distinct = false;
         if (stripped.startsWith("Distinct")) {
@@ -83,6 +103,10 @@ public class MethodQueryParser implements QueryParser {
             conditionPart = conditionPart.substring(5);
         }
 
+        if (action == QueryAction.DELETE && (!conditionPart.startsWith("By") || conditionPart.length() == 2)) {
+            throw new IllegalArgumentException("Derived delete requires a By clause: " + name);
+        }
+
         if (conditionPart.startsWith("By")) {
             conditionPart = conditionPart.substring(2);
         }
@@ -102,7 +126,10 @@ public class MethodQueryParser implements QueryParser {
                 false,
                 null,
                 storageDefinition.entityClass(),
-                null
+                null,
+                aggregateField,
+                groupBy,
+                assignments
         );
     }
 
@@ -110,6 +137,11 @@ public class MethodQueryParser implements QueryParser {
         if (methodName.startsWith("find")) return QueryAction.FIND;
         if (methodName.startsWith("count")) return QueryAction.COUNT;
         if (methodName.startsWith("exists")) return QueryAction.EXISTS;
+        if (methodName.startsWith("sum")) return QueryAction.SUM;
+        if (methodName.startsWith("avg")) return QueryAction.AVG;
+        if (methodName.startsWith("min")) return QueryAction.MIN;
+        if (methodName.startsWith("max")) return QueryAction.MAX;
+        if (methodName.startsWith("delete")) return QueryAction.DELETE;
         throw new IllegalArgumentException("Unknown query action: " + methodName);
     }
 
@@ -129,7 +161,9 @@ public class MethodQueryParser implements QueryParser {
                 QueryCondition condition = parseConditionToken(token, paramIndex, storageDefinition, outSubs);
                 if (i > 0) condition.setOr(true);
                 outConditions.add(condition);
-                paramIndex++;
+                if (!outSubs.get(outSubs.size() - 1).isLiteral()) {
+                    paramIndex++;
+                }
             }
         }
     }
@@ -190,6 +224,52 @@ public class MethodQueryParser implements QueryParser {
         return orders;
     }
 
+    private int aggregateSplit(String stripped, Class<?> entityClass) {
+        if (isAttribute(stripped, entityClass)) {
+            return -1;
+        }
+        int fallback = -1;
+        for (int at = stripped.lastIndexOf("By"); at >= 0; at = stripped.lastIndexOf("By", at - 1)) {
+            if (at + 2 < stripped.length() && !Character.isUpperCase(stripped.charAt(at + 2))) {
+                continue;
+            }
+            if (at > 0 && isAttribute(stripped.substring(0, at), entityClass)) {
+                return at;
+            }
+            fallback = at;
+        }
+        return fallback;
+    }
+
+    private int groupSplit(String stripped, Class<?> entityClass) {
+        int fallback = -1;
+        for (int at = stripped.lastIndexOf("GroupBy"); at >= 0; at = stripped.lastIndexOf("GroupBy", at - 1)) {
+            int from = at + "GroupBy".length();
+            if (from >= stripped.length() || !Character.isUpperCase(stripped.charAt(from))) {
+                continue;
+            }
+            if (isAttribute(stripped.substring(from), entityClass)) {
+                return at;
+            }
+            if (fallback < 0) {
+                fallback = at;
+            }
+        }
+        return fallback;
+    }
+
+    private boolean isAttribute(String token, Class<?> rootClass) {
+        if (token.isEmpty()) {
+            return false;
+        }
+        try {
+            AttributeAccessorUtil.resolveType(rootClass, toNestedFieldPath(token, rootClass));
+            return true;
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+
     private String toNestedFieldPath(String token, Class<?> rootClass) {
         StringBuilder resolvedPath = new StringBuilder();
         Class<?> current = rootClass;
@@ -0,0 +1,14 @@
+package xyz.quartzframework.data.query;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Parallel {
+
+    int threshold() default 10_000;
+
+}
\ No newline at end of file
@@ -19,7 +19,7 @@ public class QQLQueryParser implements QueryParser {
 
     private boolean isInPattern(Query query) {
         String sanitized = query.value().replaceAll("\\s+", " ").trim();
-        return sanitized.matches("^(find|count|exists).*");
+        return sanitized.matches("^(find|count|exists|sum|avg|min|max|delete|update).*");
     }
 
     @Override
@@ -41,9 +41,54 @@ public class QQLQueryParser implements QueryParser {
         if (lower.startsWith("find")) action = QueryAction.FIND;
         else if (lower.startsWith("count")) action = QueryAction.COUNT;
         else if (lower.startsWith("exists")) action = QueryAction.EXISTS;
+        else if (lower.startsWith("sum")) action = QueryAction.SUM;
+        else if (lower.startsWith("avg")) action = QueryAction.AVG;
+        else if (lower.startsWith("min")) action = QueryAction.MIN;
+        else if (lower.startsWith("max")) action = QueryAction.MAX;
+        else if (lower.startsWith("delete")) action = QueryAction.DELETE;
+        else if (lower.startsWith("update")) action = QueryAction.UPDATE;
         else throw new IllegalArgumentException("Unknown query action: " + rawQuery);
 
         String query = rawQuery.substring(action.name().length()).trim();
+        String aggregateField = null;
+        String groupBy = null;
+        List<QueryAssignment> assignments = new ArrayList<>();
+
+        if (action == QueryAction.DELETE) {
+            query = query.replaceFirst("(?i)^from\\s+\\w+\\s*", "").trim();
+        }
+
+        if (action == QueryAction.UPDATE) {
+            Matcher setMatch = Pattern.compile("(?i)^(?:\\w+\\s+)?set\\s+(.+)$").matcher(query);
+            if (!setMatch.matches()) {
+                throw new IllegalArgumentException("Missing SET clause in update query: " + rawQuery);
+            }
+            String clause = setMatch.group(1);
+            int whereAt = unquoted(clause, Pattern.compile("(?i)\\s+where\\s+"));
+            for (String assignment : splitUnquoted(whereAt < 0 ? clause : clause.substring(0, whereAt), ',')) {
+                List<String> sides = splitUnquoted(assignment, '=');
+                if (sides.size() != 2 || sides.get(0).isBlank() || sides.get(1).isBlank()) {
+                    throw new IllegalArgumentException("Invalid assignment in update query: " + assignment.trim());
+                }
+                assignments.add(new QueryAssignment(normalizeField(sides.get(0).trim()), parseValue(sides.get(1).trim())));
+            }
+            query = whereAt < 0 ? "" : clause.substring(whereAt).trim();
+        }
+
+        if (action.isAggregate()) {
+            Matcher fieldMatch = Pattern.compile("^([\\w.]+)\\s*(.*)$").matcher(query);
+            if (!fieldMatch.matches() || fieldMatch.group(1).equalsIgnoreCase("where")) {
+                throw new IllegalArgumentException("Missing aggregate attribute in query: " + rawQuery);
+            }
+            aggregateField = normalizeField(fieldMatch.group(1));
+            query = fieldMatch.group(2).trim();
+        }
+
+        Matcher groupMatch = Pattern.compile("(?i)\\s*\\bgroup\\s+by\\s+([\\w.]+)").matcher(query);
+        if (groupMatch.find()) {
+            groupBy = normalizeField(groupMatch.group(1));
+            query = (query.substring(0, groupMatch.start()) + " " + query.substring(groupMatch.end())).trim();
+        }
         boolean distinct = false;
         Integer limit = null;
 
@@ -102,6 +147,9 @@ public class QQLQueryParser implements QueryParser {
             query = query.substring(0, matcher.start()).trim() + " " + query.substring(matcher.end()).trim();
         }
 
+        substitutions.replaceAll(sub -> ParameterBindingUtil.bindNamedParameter(method, sub));
+        assignments.replaceAll(assignment -> assignment.withValue(ParameterBindingUtil.bindNamedParameter(method, assignment.value())));
+
         val def = new DynamicQueryDefinition(
                 method,
                 action,
@@ -113,7 +161,10 @@ public class QQLQueryParser implements QueryParser {
                 false,
                 null,
                 returnType,
-                projectionFieldsRaw
+                projectionFieldsRaw,
+                aggregateField,
+                groupBy,
+                assignments
         );
 
         ParameterBindingUtil.validateNamedParameters(method, def);
@@ -189,23 +240,7 @@ public class QQLQueryParser implements QueryParser {
         };
 
         if (expectsValue && rawValue != null) {
-            String innerRaw = extractInner(rawValue);
-            if (innerRaw.startsWith("?")) {
-                String idx = innerRaw.length() == 1 ? "0" : String.valueOf(Integer.parseInt(innerRaw.substring(1)) - 1);
-                substitutions.add(QuerySubstitution.positional(idx, rawValue));
-            } else if (innerRaw.startsWith(":")) {
-                substitutions.add(QuerySubstitution.named(innerRaw.substring(1), rawValue));
-            } else if (rawValue.equalsIgnoreCase("true")) {
-                substitutions.add(QuerySubstitution.literal(true, rawValue));
-            } else if (rawValue.equalsIgnoreCase("false")) {
-                substitutions.add(QuerySubstitution.literal(false, rawValue));
-            } else if (rawValue.equalsIgnoreCase("null")) {
-                substitutions.add(QuerySubstitution.literal(null, rawValue));
-            } else if (rawValue.startsWith("'") && rawValue.endsWith("'")) {
-                substitutions.add(QuerySubstitution.literal(rawValue.substring(1, rawValue.length() - 1), rawValue));
-            } else {
-                throw new IllegalArgumentException("Unsupported value literal: " + rawValue);
-            }
+            substitutions.add(parseValue(rawValue));
         }
 
         return new QueryCondition(
@@ -217,6 +252,63 @@ public class QQLQueryParser implements QueryParser {
         );
     }
 
+    private QuerySubstitution parseValue(String rawValue) {
+        String innerRaw = extractInner(rawValue);
+        if (innerRaw.startsWith("?")) {
+            String idx = innerRaw.length() == 1 ? "0" : String.valueOf(Integer.parseInt(innerRaw.substring(1)) - 1);
+            return QuerySubstitution.positional(idx, rawValue);
+        } else if (innerRaw.startsWith(":")) {
+            return QuerySubstitution.named(innerRaw.substring(1), rawValue);
+        } else if (rawValue.equalsIgnoreCase("true")) {
+            return QuerySubstitution.literal(true, rawValue);
+        } else if (rawValue.equalsIgnoreCase("false")) {
+            return QuerySubstitution.literal(false, rawValue);
+        } else if (rawValue.equalsIgnoreCase("null")) {
+            return QuerySubstitution.literal(null, rawValue);
+        } else if (rawValue.startsWith("'") && rawValue.endsWith("'")) {
+            return QuerySubstitution.literal(rawValue.substring(1, rawValue.length() - 1), rawValue);
+        }
+        throw new IllegalArgumentException("Unsupported value literal: " + rawValue);
+    }
+
+    private int unquoted(String text, Pattern pattern) {
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            if (!isQuoted(text, matcher.start())) {
+                return matcher.start();
+            }
+        }
+        return -1;
+    }
+
+    private boolean isQuoted(String text, int position) {
+        boolean quoted = false;
+        for (int i = 0; i < position; i++) {
+            if (text.charAt(i) == '\'') quoted = !quoted;
+        }
+        return quoted;
+    }
+
+    private List<String> splitUnquoted(String text, char delimiter) {
+        List<String> parts = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == delimiter && !quoted) {
+                parts.add(text.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated string literal: " + text);
+        }
+        parts.add(text.substring(start));
+        return parts;
+    }
+
     private String extractCaseFunction(String expr) {
         if (expr == null) return null;
         Matcher m = Pattern.compile("(?i)(lower|upper)\\(.*\\)").matcher(expr);
@@ -3,5 +3,19 @@ package xyz.quartzframework.data.query;
 public enum QueryAction {
     FIND,
     COUNT,
-    EXISTS
+    EXISTS,
+    SUM,
+    AVG,
+    MIN,
+    MAX,
+    DELETE,
+    UPDATE;
+
+    public boolean isAggregate() {
+        return this == SUM || this == AVG || this == MIN || this == MAX;
+    }
+
+    public boolean isModifying() {
+        return this == DELETE || this == UPDATE;
+    }
 }
\ No newline at end of file
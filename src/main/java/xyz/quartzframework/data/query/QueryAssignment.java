@@ -0,0 +1,8 @@
+package xyz.quartzframework.data.query;
+
+public record QueryAssignment(String attribute, QuerySubstitution value) {
+
+    public QueryAssignment withValue(QuerySubstitution value) {
+        return new QueryAssignment(attribute, value);
+    }
+}
\ No newline at end of file
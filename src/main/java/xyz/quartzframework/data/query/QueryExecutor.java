@@ -1,17 +1,44 @@
 package xyz.quartzframework.data.query;
 
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.CursorRequest;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface QueryExecutor<E> {
 
     <R> List<R> find(DynamicQueryDefinition query, Object[] args);
 
+    default <R> Stream<R> stream(DynamicQueryDefinition query, Object[] args) {
+        return this.<R>find(query, args).stream();
+    }
+
     <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination);
 
+    default <R> CursorPage<R> find(DynamicQueryDefinition query, Object[] args, CursorRequest request) {
+        throw new UnsupportedOperationException("Keyset pagination is not supported by " + getClass().getSimpleName());
+    }
+
     long count(DynamicQueryDefinition query, Object[] args);
 
     boolean exists(DynamicQueryDefinition query, Object[] args);
+
+    default Object aggregate(DynamicQueryDefinition query, Object[] args) {
+        return Aggregator.aggregate(find(query, args).stream(), query, null);
+    }
+
+    default long delete(DynamicQueryDefinition query, Object[] args) {
+        throw new UnsupportedOperationException("Bulk delete is not supported by " + getClass().getSimpleName());
+    }
+
+    default long update(DynamicQueryDefinition query, Object[] args) {
+        throw new UnsupportedOperationException("Bulk update is not supported by " + getClass().getSimpleName());
+    }
+
+    default QueryExplanation explain(DynamicQueryDefinition query, Object[] args) {
+        throw new UnsupportedOperationException("Explain is not supported by " + getClass().getSimpleName());
+    }
 }
\ No newline at end of file
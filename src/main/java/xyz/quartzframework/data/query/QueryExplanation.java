@@ -0,0 +1,45 @@
+package xyz.quartzframework.data.query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public record QueryExplanation(
+    String query,
+    QueryAction action,
+    List<List<String>> conditions,
+    AccessPath accessPath,
+    SortStrategy sortStrategy,
+    boolean parallel,
+    long rowsScanned,
+    long rowsMatched,
+    long rowsReturned,
+    Duration planningTime,
+    Duration executionTime
+) {
+
+    public enum AccessPath {
+        FULL_SCAN, INDEX_LOOKUP, ORDERED_INDEX_SCAN, INDEX_COUNT
+    }
+
+    public enum SortStrategy {
+        NONE, ORDERED_INDEX, TOP_K, FULL_SORT
+    }
+
+    public Duration totalTime() {
+        return planningTime.plus(executionTime);
+    }
+
+    @Override
+    public String toString() {
+        String where = conditions.isEmpty() ? "<all>" : conditions.stream()
+                .map(group -> String.join(" and ", group))
+                .collect(Collectors.joining(") or (", "(", ")"));
+        return action + " " + query +
+                "\n  where:    " + where +
+                "\n  access:   " + accessPath + (parallel ? " (parallel)" : "") +
+                "\n  sort:     " + sortStrategy +
+                "\n  rows:     scanned=" + rowsScanned + " matched=" + rowsMatched + " returned=" + rowsReturned +
+                "\n  time:     planning=" + planningTime.toNanos() / 1000 + "us execution=" + executionTime.toNanos() / 1000 + "us";
+    }
+}
\ No newline at end of file
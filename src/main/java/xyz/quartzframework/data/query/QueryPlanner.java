@@ -0,0 +1,108 @@
+package xyz.quartzframework.data.query;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.util.AttributeAccessorUtil;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@RequiredArgsConstructor
+public class QueryPlanner {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private static final double INDEX_SCAN_RATIO = 0.5;
+
+    private final Map<String, Snapshot> statistics = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Collection<?> source;
+
+    private final Class<?> entityType;
+
+    private final LongSupplier version;
+
+    public AttributeStatistics statistics(String attribute) {
+        long current = version.getAsLong();
+        Snapshot snapshot = statistics.get(attribute);
+        if (snapshot == null || snapshot.isStale(current, source.size())) {
+            snapshot = new Snapshot(AttributeStatistics.sample(source, AttributeAccessorUtil.resolve(entityType, attribute), SAMPLE_SIZE), current);
+            statistics.put(attribute, snapshot);
+            generation.incrementAndGet();
+        }
+        return snapshot.statistics();
+    }
+
+    public double selectivity(QueryCondition condition, @Nullable Object value) {
+        return statistics(condition.getAttribute().name()).selectivity(condition.getOperation(), value);
+    }
+
+    public double cost(QueryCondition condition, @Nullable Object value) {
+        double cost = switch (condition.getOperation()) {
+            case LIKE, NOT_LIKE -> value instanceof String pattern && pattern.indexOf('_') >= 0 ? 8 : 3;
+            case IN, NOT_IN -> 1.5;
+            default -> 1;
+        };
+        if (condition.isIgnoreCase()) {
+            cost *= 2;
+        }
+        return condition.getAttribute().name().indexOf('.') >= 0 ? cost + 1 : cost;
+    }
+
+    public <T> void order(List<T> conditions, Estimator<T> estimator) {
+        if (conditions.size() < 2) {
+            return;
+        }
+        Map<T, Double> ranks = new IdentityHashMap<>();
+        for (T term : conditions) {
+            ranks.put(term, estimator.cost(term) / Math.max(1 - estimator.selectivity(term), 1e-6));
+        }
+        conditions.sort(Comparator.comparingDouble(ranks::get));
+    }
+
+    public Stamp stamp() {
+        return new Stamp(generation.get(), version.getAsLong(), source.size());
+    }
+
+    public boolean isCurrent(Stamp stamp) {
+        return stamp.generation() == generation.get() && !Snapshot.isStale(stamp.version(), stamp.population(), version.getAsLong(), source.size());
+    }
+
+    public boolean prefersIndex(double estimatedRows) {
+        return estimatedRows <= Math.max(1, source.size() * INDEX_SCAN_RATIO);
+    }
+
+    public interface Estimator<T> {
+
+        double selectivity(T term);
+
+        double cost(T term);
+
+    }
+
+    /**
+     * Statistics generation and data version a plan was ranked against; the plan is reused until the
+     * statistics are resampled or the data drifts past the same threshold that triggers a resample.
+     */
+    public record Stamp(long generation, long version, long population) { }
+
+    private record Snapshot(AttributeStatistics statistics, long version) {
+
+        private boolean isStale(long current, int size) {
+            return isStale(version, statistics.population(), current, size);
+        }
+
+        private static boolean isStale(long version, long population, long current, int size) {
+            long threshold = Math.max(64, population / 10);
+            return current - version > threshold || Math.abs(size - population) > threshold;
+        }
+    }
+}
\ No newline at end of file
@@ -16,16 +16,19 @@ public class QuerySubstitution {
     @Nullable
     private final Object literalValue;
 
+    @Nullable
+    private final Integer parameterIndex;
+
     public static QuerySubstitution named(String name, String rawExpression) {
-        return new QuerySubstitution(true, false, rawExpression, name, null);
+        return new QuerySubstitution(true, false, rawExpression, name, null, null);
     }
 
     public static QuerySubstitution positional(String index, String rawExpression) {
-        return new QuerySubstitution(false, false, rawExpression, index, null);
+        return new QuerySubstitution(false, false, rawExpression, index, null, parseIndex(index));
     }
 
     public static QuerySubstitution literal(Object value, String rawExpression) {
-        return new QuerySubstitution(false, true, rawExpression, null, value);
+        return new QuerySubstitution(false, true, rawExpression, null, value, null);
     }
 
     private QuerySubstitution(
@@ -33,13 +36,33 @@ public class QuerySubstitution {
             boolean literal,
             String rawExpression,
             @Nullable String nameOrIndex,
-            @Nullable Object literalValue
+            @Nullable Object literalValue,
+            @Nullable Integer parameterIndex
     ) {
         this.named = named;
         this.literal = literal;
         this.rawExpression = rawExpression;
         this.nameOrIndex = nameOrIndex;
         this.literalValue = literalValue;
+        this.parameterIndex = parameterIndex;
+    }
+
+    public QuerySubstitution bindTo(int parameterIndex) {
+        return new QuerySubstitution(named, literal, rawExpression, nameOrIndex, literalValue, parameterIndex);
+    }
+
+    public boolean isBound() {
+        return parameterIndex != null;
+    }
+
+    @Nullable
+    private static Integer parseIndex(@Nullable String index) {
+        if (index == null) return null;
+        try {
+            return Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     public boolean isPositional() {
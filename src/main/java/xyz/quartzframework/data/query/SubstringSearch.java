@@ -0,0 +1,53 @@
+package xyz.quartzframework.data.query;
+
+import java.util.Arrays;
+
+final class SubstringSearch {
+
+    private final char[] needle;
+
+    private final int[] shifts = new int[256];
+
+    private final boolean ignoreCase;
+
+    SubstringSearch(String pattern, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.needle = new char[pattern.length()];
+        for (int i = 0; i < needle.length; i++) {
+            needle[i] = fold(pattern.charAt(i));
+        }
+        Arrays.fill(shifts, Math.max(needle.length, 1));
+        for (int i = 0; i < needle.length - 1; i++) {
+            shifts[needle[i] & 0xFF] = needle.length - 1 - i;
+        }
+    }
+
+    int length() {
+        return needle.length;
+    }
+
+    int indexIn(String text, int from, int to) {
+        int last = needle.length - 1;
+        if (last < 0) {
+            return from <= to ? from : -1;
+        }
+        for (int i = from; i + last < to; ) {
+            char tail = fold(text.charAt(i + last));
+            if (tail == needle[last]) {
+                int j = last - 1;
+                while (j >= 0 && fold(text.charAt(i + j)) == needle[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += shifts[tail & 0xFF];
+        }
+        return -1;
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package xyz.quartzframework.data.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+class ConcurrentEntityMap<ID, E> implements EntityMap<ID, E> {
+
+    private final ConcurrentHashMap<ID, E> map = new ConcurrentHashMap<>();
+
+    @Override
+    public E get(ID id) {
+        return map.get(id);
+    }
+
+    @Override
+    public boolean containsKey(ID id) {
+        return map.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public E put(ID id, E entity) {
+        return map.put(id, entity);
+    }
+
+    @Override
+    public E remove(ID id) {
+        return map.remove(id);
+    }
+
+    @Override
+    public E compute(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping) {
+        return map.compute(id, remapping);
+    }
+
+    @Override
+    public E computeIfPresent(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping) {
+        return map.computeIfPresent(id, remapping);
+    }
+
+    @Override
+    public Collection<E> values() {
+        return map.values();
+    }
+
+    @Override
+    public List<ID> keys() {
+        return List.copyOf(map.keySet());
+    }
+}
\ No newline at end of file
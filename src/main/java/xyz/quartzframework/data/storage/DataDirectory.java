@@ -0,0 +1,22 @@
+package xyz.quartzframework.data.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Directory the default mapped and durable storage providers keep their files in.
+ * Provide a bean of this type to place them elsewhere; otherwise it is read from
+ * the {@value #PROPERTY} system property, falling back to {@code data} under the
+ * working directory, and resolved to an absolute path once at startup.
+ */
+public record DataDirectory(Path path) {
+
+    public static final String PROPERTY = "quartz.data.directory";
+
+    public DataDirectory {
+        path = path.toAbsolutePath().normalize();
+    }
+
+    public static DataDirectory fromSystemProperty() {
+        return new DataDirectory(Path.of(System.getProperty(PROPERTY, "data")));
+    }
+}
\ No newline at end of file
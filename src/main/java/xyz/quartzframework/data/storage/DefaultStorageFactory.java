@@ -3,9 +3,13 @@ package xyz.quartzframework.data.storage;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.core.bean.factory.PluginBeanFactory;
 import xyz.quartzframework.data.annotation.Storage;
 import xyz.quartzframework.data.annotation.SuperStorage;
+import xyz.quartzframework.data.metrics.MetricsInterceptor;
+import xyz.quartzframework.data.metrics.SlowQueryLog;
+import xyz.quartzframework.data.metrics.StorageMetrics;
 import xyz.quartzframework.data.query.QueryParser;
 import xyz.quartzframework.data.util.GenericTypeUtil;
 import xyz.quartzframework.data.util.ProxyFactoryUtil;
@@ -22,6 +26,15 @@ public class DefaultStorageFactory implements StorageFactory {
 
     private final PluginBeanFactory beanFactory;
 
+    private final StorageMetrics metrics;
+
+    @Nullable
+    private final SlowQueryLog slowQueryLog;
+
+    public DefaultStorageFactory(QueryParser queryParser, URLClassLoader classLoader, PluginBeanFactory beanFactory) {
+        this(queryParser, classLoader, beanFactory, StorageMetrics.NOOP, null);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <E, ID> SimpleStorage<E, ID> create(Class<? extends SimpleStorage<E, ID>> storageInterface) {
@@ -47,7 +60,11 @@ public class DefaultStorageFactory implements StorageFactory {
         if (bean instanceof StorageProvider provider) {
             val target = provider.create(entityType, idType);
             val interceptors = Arrays.stream(annotation.interceptors()).map(beanFactory::getBean).toArray(MethodInterceptor[]::new);
-            val proxyFactory = ProxyFactoryUtil.createProxyFactory(queryParser, target, entityType, storageInterface, provider.getQueryExecutor(target), interceptors);
+            val proxyFactory = ProxyFactoryUtil.createProxyFactory(queryParser, target, entityType, storageInterface, provider.getQueryExecutor(target), slowQueryLog, interceptors);
+            if (metrics != StorageMetrics.NOOP) {
+                metrics.register(storageInterface, target::count);
+                proxyFactory.addAdvice(0, new MetricsInterceptor(storageInterface, metrics));
+            }
             return (SimpleStorage<E, ID>) proxyFactory.getProxy(classLoader);
         }
         throw new IllegalStateException("Provided class " + implClass.getName() + " is not a StorageProvider");
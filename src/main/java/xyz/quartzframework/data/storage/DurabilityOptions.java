@@ -0,0 +1,34 @@
+package xyz.quartzframework.data.storage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public record DurabilityOptions(Path directory, SyncPolicy sync, Duration syncInterval, long snapshotBytes) {
+
+    public static final long DEFAULT_SNAPSHOT_BYTES = 64L << 20;
+
+    public DurabilityOptions {
+        if (syncInterval.isNegative() || syncInterval.isZero()) {
+            throw new IllegalArgumentException("Sync interval must be positive: " + syncInterval);
+        }
+        if (snapshotBytes < 0) {
+            throw new IllegalArgumentException("Snapshot threshold must not be negative: " + snapshotBytes);
+        }
+    }
+
+    public static DurabilityOptions of(Path directory) {
+        return new DurabilityOptions(directory, SyncPolicy.ALWAYS, Duration.ofMillis(10), DEFAULT_SNAPSHOT_BYTES);
+    }
+
+    public DurabilityOptions withSync(SyncPolicy sync) {
+        return new DurabilityOptions(directory, sync, syncInterval, snapshotBytes);
+    }
+
+    public DurabilityOptions withSync(SyncPolicy sync, Duration syncInterval) {
+        return new DurabilityOptions(directory, sync, syncInterval, snapshotBytes);
+    }
+
+    public DurabilityOptions withSnapshotBytes(long snapshotBytes) {
+        return new DurabilityOptions(directory, sync, syncInterval, snapshotBytes);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import xyz.quartzframework.data.codec.EntityCodec;
+import xyz.quartzframework.data.codec.EntityCodecRegistry;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DurableStorageProvider implements StorageProvider {
+
+    private final EntityCodecRegistry codecs = new EntityCodecRegistry();
+
+    private final Map<Class<?>, HashMapStorage<?, ?>> storages = new ConcurrentHashMap<>();
+
+    @Getter
+    private final DurabilityOptions options;
+
+    public DurableStorageProvider(DurabilityOptions options) {
+        this.options = options;
+    }
+
+    public <E> DurableStorageProvider register(Class<E> entityClass, EntityCodec<E> codec) {
+        codecs.register(entityClass, codec);
+        return this;
+    }
+
+    public <E> EntityCodec<E> getCodec(Class<E> entityClass) {
+        return codecs.get(entityClass);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E, ID> HashMapStorage<E, ID> create(Class<E> entity, Class<ID> id) {
+        HashMapStorage<?, ?> storage = storages.computeIfAbsent(entity, e -> new HashMapStorage<>(entity, id, EntityMap.forIdClass(id),
+                new WriteAheadLog<>(options, entity, id, getCodec(entity))));
+        if (storage.getIdClass() != id) {
+            throw new IllegalStateException(entity.getName() + " is already stored with " + storage.getIdClass().getName() + " ids");
+        }
+        return (HashMapStorage<E, ID>) storage;
+    }
+
+    @Override
+    public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
+        if (storage instanceof QueryableStorage<E, ID> queryable) {
+            return new InMemoryQueryExecutor<>(queryable);
+        }
+        return new InMemoryQueryExecutor<>(storage.findAll(), storage.getEntityClass());
+    }
+
+    public void snapshot() {
+        storages.values().forEach(storage -> storage.getWriteAheadLog().snapshot());
+    }
+
+    @PreDestroy
+    public void close() {
+        storages.values().forEach(HashMapStorage::close);
+        storages.clear();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package xyz.quartzframework.data.storage;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+public interface EntityMap<ID, E> {
+
+    @Nullable
+    E get(ID id);
+
+    boolean containsKey(ID id);
+
+    int size();
+
+    @Nullable
+    E put(ID id, E entity);
+
+    @Nullable
+    E remove(ID id);
+
+    @Nullable
+    E compute(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping);
+
+    @Nullable
+    E computeIfPresent(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping);
+
+    Collection<E> values();
+
+    List<ID> keys();
+
+    @SuppressWarnings("unchecked")
+    static <ID, E> EntityMap<ID, E> forIdClass(Class<ID> idClass) {
+        if (idClass == UUID.class) {
+            return (EntityMap<ID, E>) new UuidEntityMap<E>();
+        }
+        if (idClass == Long.class || idClass == long.class) {
+            return (EntityMap<ID, E>) new LongEntityMap<Long, E>(id -> id, key -> key);
+        }
+        if (idClass == Integer.class || idClass == int.class) {
+            return (EntityMap<ID, E>) new LongEntityMap<Integer, E>(id -> id, key -> (int) key);
+        }
+        return new ConcurrentEntityMap<>();
+    }
+}
\ No newline at end of file
@@ -1,21 +1,33 @@
 package xyz.quartzframework.data.storage;
 
 import lombok.Getter;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.index.AttributeIndex;
+import xyz.quartzframework.data.index.EntityIndexes;
+import xyz.quartzframework.data.metrics.StorageWriteEvent;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
 import xyz.quartzframework.data.page.Sort;
 import xyz.quartzframework.data.util.IdentityUtil;
 import xyz.quartzframework.data.util.SortUtil;
 
+import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
+public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID>, QueryableStorage<E, ID>, Closeable {
 
-    private final Map<ID, E> storage = new ConcurrentHashMap<>();
+    private final EntityMap<ID, E> storage;
+
+    private final EntityIndexes<E, ID> indexes;
+
+    private final AtomicLong version = new AtomicLong();
 
     @Getter
     private final Class<E> entityClass;
@@ -23,9 +35,27 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
     @Getter
     private final Class<ID> idClass;
 
+    @Nullable
+    @Getter
+    private final WriteAheadLog<E, ID> writeAheadLog;
+
     public HashMapStorage(Class<E> entityClass, Class<ID> idClass) {
+        this(entityClass, idClass, EntityMap.forIdClass(idClass));
+    }
+
+    public HashMapStorage(Class<E> entityClass, Class<ID> idClass, EntityMap<ID, E> storage) {
+        this(entityClass, idClass, storage, null);
+    }
+
+    public HashMapStorage(Class<E> entityClass, Class<ID> idClass, EntityMap<ID, E> storage, @Nullable WriteAheadLog<E, ID> writeAheadLog) {
         this.idClass = idClass;
         this.entityClass = entityClass;
+        this.storage = storage;
+        this.indexes = new EntityIndexes<>(entityClass);
+        this.writeAheadLog = writeAheadLog;
+        if (writeAheadLog != null) {
+            writeAheadLog.open(storage.values(), this::put, this::remove);
+        }
     }
 
     @Override
@@ -45,43 +75,96 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
 
     @Override
     public Page<E> findAll(Pagination pagination) {
-        return Page.fromList(storage.values().stream().toList(), pagination);
+        if (Pagination.isUnpaged(pagination)) {
+            return Page.fromList(findAll(pagination.sort()), pagination);
+        }
+        int total = storage.size();
+        int end = (int) Math.min((long) pagination.offset() + pagination.size(), Integer.MAX_VALUE);
+        List<E> window = pagination.sort().isSorted()
+                ? storage.values().stream().collect(SortUtil.top(SortUtil.comparator(entityClass, pagination.sort()), end))
+                : storage.values().stream().limit(end).toList();
+        int from = Math.min(pagination.offset(), window.size());
+        return Page.of(window.subList(from, window.size()), pagination, total);
     }
 
     @Override
     public E save(E entity) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
         ID id = IdentityUtil.extractId(entity, idClass);
-        storage.put(id, entity);
+        journal(batch -> {
+            batch.put(id, entity);
+            put(id, entity);
+        });
+        commit(event, "save", 1);
         return entity;
     }
 
     @Override
     public List<E> save(Iterable<E> entities) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
         List<E> saved = new ArrayList<>();
-        for (E entity : entities) {
-            ID id = IdentityUtil.extractId(entity, idClass);
-            storage.put(id, entity);
-            saved.add(entity);
-        }
+        journal(batch -> {
+            for (E entity : entities) {
+                ID id = IdentityUtil.extractId(entity, idClass);
+                batch.put(id, entity);
+                put(id, entity);
+                saved.add(entity);
+            }
+        });
+        commit(event, "save", saved.size());
         return saved;
     }
 
     @Override
     public void deleteById(ID id) {
-        storage.remove(id);
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        journal(batch -> {
+            batch.delete(id);
+            remove(id);
+        });
+        commit(event, "delete", 1);
     }
 
     @Override
     public void delete(E entity) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
         ID id = IdentityUtil.extractId(entity, idClass);
-        storage.remove(id);
+        journal(batch -> {
+            batch.delete(id);
+            remove(id);
+        });
+        commit(event, "delete", 1);
     }
 
     @Override
     public void delete(Iterable<E> entities) {
-        for (E entity : entities) {
-            delete(entity);
-        }
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long[] deleted = new long[1];
+        journal(batch -> {
+            for (E entity : entities) {
+                ID id = IdentityUtil.extractId(entity, idClass);
+                batch.delete(id);
+                remove(id);
+                deleted[0]++;
+            }
+        });
+        commit(event, "delete", deleted[0]);
+    }
+
+    @Nullable
+    @Override
+    public AttributeIndex<ID> getIndex(String attribute) {
+        return indexes.get(attribute);
+    }
+
+    @Override
+    public Collection<E> values() {
+        return Collections.unmodifiableCollection(storage.values());
     }
 
     @Override
@@ -92,7 +175,112 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
     @Override
     public List<E> findAll(Sort sort) {
         List<E> result = new ArrayList<>(storage.values());
-        SortUtil.sortList(result, sort);
+        if (sort.isSorted()) {
+            result.sort(SortUtil.comparator(entityClass, sort));
+        }
         return result;
     }
+
+    @Override
+    public long removeIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        List<ID> ids = candidates == null ? storage.keys() : List.copyOf(candidates);
+        long[] removed = new long[1];
+        journal(batch -> {
+            for (ID id : ids) {
+                boolean[] matched = new boolean[1];
+                storage.computeIfPresent(id, (key, current) -> {
+                    if (!filter.test(current)) return current;
+                    batch.delete(key);
+                    indexes.remove(key);
+                    matched[0] = true;
+                    return null;
+                });
+                if (matched[0]) removed[0]++;
+            }
+        });
+        if (removed[0] > 0) version.addAndGet(removed[0]);
+        commit(event, "deleteByQuery", removed[0]);
+        return removed[0];
+    }
+
+    @Override
+    public long updateIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter, Consumer<? super E> update) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        List<ID> ids = candidates == null ? storage.keys() : List.copyOf(candidates);
+        long[] updated = new long[1];
+        journal(batch -> {
+            for (ID id : ids) {
+                boolean[] matched = new boolean[1];
+                storage.computeIfPresent(id, (key, current) -> {
+                    if (!filter.test(current)) return current;
+                    update.accept(current);
+                    batch.put(key, current);
+                    indexes.put(key, current);
+                    matched[0] = true;
+                    return current;
+                });
+                if (matched[0]) updated[0]++;
+            }
+        });
+        if (updated[0] > 0) version.addAndGet(updated[0]);
+        commit(event, "updateByQuery", updated[0]);
+        return updated[0];
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void close() {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+    }
+
+    private void journal(Consumer<WriteAheadLog.Batch<E, ID>> changes) {
+        if (writeAheadLog == null) {
+            changes.accept(WriteAheadLog.Batch.none());
+        } else {
+            writeAheadLog.commit(changes);
+        }
+    }
+
+    private void commit(StorageWriteEvent event, String operation, long entities) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.entity = entityClass.getName();
+            event.operation = operation;
+            event.entities = entities;
+            event.commit();
+        }
+    }
+
+    private void put(ID id, E entity) {
+        if (indexes.isEmpty()) {
+            storage.put(id, entity);
+        } else {
+            storage.compute(id, (key, previous) -> {
+                indexes.put(key, entity);
+                return entity;
+            });
+        }
+        version.incrementAndGet();
+    }
+
+    private void remove(ID id) {
+        if (indexes.isEmpty()) {
+            if (storage.remove(id) != null) version.incrementAndGet();
+            return;
+        }
+        storage.computeIfPresent(id, (key, previous) -> {
+            indexes.remove(key);
+            version.incrementAndGet();
+            return null;
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@UtilityClass
+class IdKeys {
+
+    public boolean isSupported(Class<?> idClass) {
+        return idClass == UUID.class || idClass == String.class || idClass.isEnum()
+                || idClass == Long.class || idClass == Integer.class || idClass == Short.class || idClass == Byte.class;
+    }
+
+    public byte[] encode(Object id) {
+        if (id instanceof UUID uuid) {
+            return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+        }
+        if (id instanceof String string) {
+            return string.getBytes(StandardCharsets.UTF_8);
+        }
+        if (id instanceof Enum<?> constant) {
+            return constant.name().getBytes(StandardCharsets.UTF_8);
+        }
+        if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return ByteBuffer.allocate(8).putLong(((Number) id).longValue()).array();
+        }
+        throw new IllegalArgumentException("Unsupported id type: " + id.getClass().getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <ID> ID decode(ByteBuffer key, Class<ID> idClass) {
+        if (idClass == UUID.class) {
+            return (ID) new UUID(key.getLong(), key.getLong());
+        }
+        if (idClass == String.class || idClass.isEnum()) {
+            byte[] bytes = new byte[key.remaining()];
+            key.get(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            return idClass == String.class ? (ID) value : (ID) Enum.valueOf((Class<? extends Enum>) idClass, value);
+        }
+        long value = key.getLong();
+        if (idClass == Integer.class) return (ID) Integer.valueOf((int) value);
+        if (idClass == Short.class) return (ID) Short.valueOf((short) value);
+        if (idClass == Byte.class) return (ID) Byte.valueOf((byte) value);
+        return (ID) Long.valueOf(value);
+    }
+}
\ No newline at end of file
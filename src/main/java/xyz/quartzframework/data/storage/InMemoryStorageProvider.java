@@ -1,10 +1,24 @@
 package xyz.quartzframework.data.storage;
 
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.data.query.InMemoryQueryExecutor;
 import xyz.quartzframework.data.query.QueryExecutor;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class InMemoryStorageProvider implements StorageProvider {
 
+    @Nullable
+    private final ForkJoinPool pool;
+
+    public InMemoryStorageProvider() {
+        this(null);
+    }
+
+    public InMemoryStorageProvider(@Nullable ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     @Override
     public <E, ID> HashMapStorage<E, ID> create(Class<E> entity, Class<ID> id) {
         return new HashMapStorage<>(entity, id);
@@ -12,6 +26,9 @@ public class InMemoryStorageProvider implements StorageProvider {
 
     @Override
     public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
-        return new InMemoryQueryExecutor<>(storage.findAll(), storage.getEntityClass());
+        if (storage instanceof QueryableStorage<E, ID> queryable) {
+            return new InMemoryQueryExecutor<>(queryable, pool);
+        }
+        return new InMemoryQueryExecutor<>(storage.findAll(), storage.getEntityClass(), pool);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package xyz.quartzframework.data.storage;
+
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+class LongEntityMap<ID, E> extends PackedEntityMap<ID, E> {
+
+    private final ToLongFunction<ID> packer;
+
+    private final LongFunction<ID> unpacker;
+
+    LongEntityMap(ToLongFunction<ID> packer, LongFunction<ID> unpacker) {
+        super(1);
+        this.packer = packer;
+        this.unpacker = unpacker;
+    }
+
+    @Override
+    protected long high(ID id) {
+        return packer.applyAsLong(id);
+    }
+
+    @Override
+    protected long low(ID id) {
+        return 0;
+    }
+
+    @Override
+    protected ID id(long high, long low) {
+        return unpacker.apply(high);
+    }
+}
\ No newline at end of file
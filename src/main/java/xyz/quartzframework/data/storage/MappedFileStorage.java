@@ -0,0 +1,673 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.codec.EntityCodec;
+import xyz.quartzframework.data.index.AttributeIndex;
+import xyz.quartzframework.data.index.EntityIndexes;
+import xyz.quartzframework.data.metrics.StorageWriteEvent;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.util.IdentityUtil;
+import xyz.quartzframework.data.util.SortUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Persists entities in a memory-mapped data file split into fixed-size segments.
+ * Records carry their encoded id and the stamp they were allocated at next to the
+ * codec payload and are padded to size classes; freed records are chained into
+ * per-class free lists stored in the file header, and an {@link MappedIdIndex}
+ * maps ids to record addresses. Opening an existing file only maps it, so nothing
+ * is loaded until it is read; only {@code @Indexed} attribute indexes are rebuilt
+ * by a scan. Scans skip records allocated after they started, so an entity moved
+ * by a concurrent write is returned at most once.
+ * <p>
+ * Writes reach the page cache immediately and the disk when the operating system
+ * writes pages back or on {@link #flush()} and {@link #close()}. Only those two
+ * calls make writes durable: pages are written back in no particular order, so
+ * after a crash the file may hold any mix of the writes since the last flush, and
+ * a record torn by the crash is not detected. On open the id index is rebuilt
+ * from a scan of the records when its file is missing or its size disagrees with
+ * the record count in the header; if a key was moved but its old copy not yet
+ * freed, the copy allocated last wins. Use {@link DurableStorage} when writes
+ * must survive a crash.
+ */
+@Slf4j
+public class MappedFileStorage<E, ID> implements PersistentStorage<E, ID>, QueryableStorage<E, ID>, Closeable {
+
+    private static final int MAGIC = 0x51444154;
+
+    private static final int FORMAT = 2;
+
+    private static final int FILE_HEADER = 4096;
+
+    private static final int SEGMENT_HEADER = 8;
+
+    private static final int RECORD_HEADER = 16;
+
+    private static final int SEGMENT_SIZE = 8;
+
+    private static final int SEGMENTS = 12;
+
+    private static final int COUNT = 16;
+
+    private static final int FREE_BYTES = 24;
+
+    private static final int GENERATION = 32;
+
+    private static final int STAMP = 40;
+
+    private static final int FREE_HEADS = 64;
+
+    private static final int SCAN_BATCH = 128;
+
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private final EntityIndexes<E, ID> indexes;
+
+    private final EntityCodec<E> codec;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Values values = new Values();
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer header;
+
+    private final MappedIdIndex index;
+
+    @Getter
+    private final Path path;
+
+    @Getter
+    private final int segmentSize;
+
+    private volatile long count;
+
+    private volatile long stamp;
+
+    private volatile boolean closed;
+
+    @Getter
+    private final Class<E> entityClass;
+
+    @Getter
+    private final Class<ID> idClass;
+
+    public MappedFileStorage(Path directory, Class<E> entityClass, Class<ID> idClass, EntityCodec<E> codec, int segmentSize) {
+        if (!IdKeys.isSupported(idClass)) {
+            throw new IllegalArgumentException("Persistent storages support UUID, integral, String and enum ids, not " + idClass.getName());
+        }
+        this.entityClass = entityClass;
+        this.idClass = idClass;
+        this.codec = codec;
+        this.indexes = new EntityIndexes<>(entityClass);
+        this.path = directory.resolve(entityClass.getName() + ".data");
+        try {
+            Files.createDirectories(directory);
+            boolean created = !Files.exists(path);
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER);
+            if (created) {
+                header.putInt(0, MAGIC).putInt(4, FORMAT).putInt(SEGMENT_SIZE, segmentSize);
+            } else if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT) {
+                throw new IllegalStateException(path + " is not a storage file of format " + FORMAT);
+            }
+            this.segmentSize = header.getInt(SEGMENT_SIZE);
+            for (int i = 0, n = header.getInt(SEGMENTS); i < n; i++) {
+                segments.add(mapSegment(i));
+            }
+            this.count = header.getLong(COUNT);
+            this.stamp = header.getLong(STAMP);
+            this.index = new MappedIdIndex(directory, entityClass.getName(), header.getLong(GENERATION));
+            if (!created && (index.isCreated() || index.getSize() != count)) {
+                reindex();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!indexes.isEmpty()) {
+            for (E entity : values) {
+                indexes.put(IdentityUtil.extractId(entity, idClass), entity);
+            }
+        }
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        byte[] key = IdKeys.encode(id);
+        lock.readLock().lock();
+        try {
+            long address = index.get(MappedIdIndex.hash(key), a -> sameKey(a, key));
+            return address == 0 ? Optional.empty() : Optional.of(read(address));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        byte[] key = IdKeys.encode(id);
+        lock.readLock().lock();
+        try {
+            return index.get(MappedIdIndex.hash(key), a -> sameKey(a, key)) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<E> findAll(Pagination pagination) {
+        if (Pagination.isUnpaged(pagination)) {
+            return Page.fromList(findAll(pagination.sort()), pagination);
+        }
+        int total = (int) Math.min(count, Integer.MAX_VALUE);
+        int end = (int) Math.min((long) pagination.offset() + pagination.size(), Integer.MAX_VALUE);
+        List<E> window = pagination.sort().isSorted()
+                ? values.stream().collect(SortUtil.top(SortUtil.comparator(entityClass, pagination.sort()), end))
+                : values.stream().limit(end).toList();
+        int from = Math.min(pagination.offset(), window.size());
+        return Page.of(window.subList(from, window.size()), pagination, total);
+    }
+
+    @Override
+    public E save(E entity) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        ID id = IdentityUtil.extractId(entity, idClass);
+        ByteBuffer payload = encode(entity);
+        lock.writeLock().lock();
+        try {
+            store(id, entity, payload);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(event, "save", 1);
+        return entity;
+    }
+
+    @Override
+    public List<E> save(Iterable<E> entities) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        List<E> saved = new ArrayList<>();
+        for (E entity : entities) {
+            ID id = IdentityUtil.extractId(entity, idClass);
+            ByteBuffer payload = encode(entity);
+            lock.writeLock().lock();
+            try {
+                store(id, entity, payload);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            saved.add(entity);
+        }
+        commit(event, "save", saved.size());
+        return saved;
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        remove(id);
+        commit(event, "delete", 1);
+    }
+
+    @Override
+    public void delete(E entity) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        remove(IdentityUtil.extractId(entity, idClass));
+        commit(event, "delete", 1);
+    }
+
+    @Override
+    public void delete(Iterable<E> entities) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long deleted = 0;
+        for (E entity : entities) {
+            remove(IdentityUtil.extractId(entity, idClass));
+            deleted++;
+        }
+        commit(event, "delete", deleted);
+    }
+
+    @Nullable
+    @Override
+    public AttributeIndex<ID> getIndex(String attribute) {
+        return indexes.get(attribute);
+    }
+
+    @Override
+    public Collection<E> values() {
+        return values;
+    }
+
+    @Override
+    public List<E> findAll() {
+        return new ArrayList<>(values);
+    }
+
+    @Override
+    public List<E> findAll(Sort sort) {
+        List<E> result = new ArrayList<>(values);
+        if (sort.isSorted()) {
+            result.sort(SortUtil.comparator(entityClass, sort));
+        }
+        return result;
+    }
+
+    @Override
+    public long removeIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long removed = 0;
+        lock.writeLock().lock();
+        try {
+            for (long address : candidates(candidates)) {
+                E current = read(address);
+                if (filter.test(current)) {
+                    ID id = IdentityUtil.extractId(current, idClass);
+                    byte[] key = IdKeys.encode(id);
+                    index.remove(MappedIdIndex.hash(key), a -> a == address);
+                    release(address);
+                    indexes.remove(id);
+                    removed++;
+                }
+            }
+            setCount(count - removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed > 0) version.addAndGet(removed);
+        commit(event, "deleteByQuery", removed);
+        return removed;
+    }
+
+    @Override
+    public long updateIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter, Consumer<? super E> update) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long updated = 0;
+        lock.writeLock().lock();
+        try {
+            for (long address : candidates(candidates)) {
+                E current = read(address);
+                if (!filter.test(current)) continue;
+                update.accept(current);
+                store(IdentityUtil.extractId(current, idClass), current, encode(current));
+                updated++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(event, "updateByQuery", updated);
+        return updated;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            index.force();
+            header.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            flush();
+            closed = true;
+            index.close();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void commit(StorageWriteEvent event, String operation, long entities) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.entity = entityClass.getName();
+            event.operation = operation;
+            event.entities = entities;
+            event.commit();
+        }
+    }
+
+    private ByteBuffer encode(E entity) {
+        ByteBuffer buffer = scratch.get();
+        while (true) {
+            buffer.clear();
+            try {
+                codec.encode(entity, buffer);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                if (buffer.capacity() >= segmentSize) {
+                    throw new IllegalArgumentException("Entity " + entityClass.getName() + " does not fit in a segment of " + segmentSize + " bytes");
+                }
+                buffer = ByteBuffer.allocate((int) Math.min((long) buffer.capacity() * 2, segmentSize));
+                scratch.set(buffer);
+            }
+        }
+    }
+
+    private long[] candidates(@Nullable Collection<ID> candidates) {
+        long[] addresses = new long[16];
+        int n = 0;
+        if (candidates == null) {
+            for (int s = 0; s < segments.size(); s++) {
+                MappedByteBuffer segment = segments.get(s);
+                for (int offset = SEGMENT_HEADER, top = segment.getInt(0); offset < top; ) {
+                    int length = segment.getInt(offset);
+                    if (length >= 0) {
+                        if (n == addresses.length) addresses = Arrays.copyOf(addresses, n * 2);
+                        addresses[n++] = ((long) s << 32) | offset;
+                    }
+                    offset += length >= 0 ? SizeClass.of(length + Integer.BYTES) : -length;
+                }
+            }
+        } else {
+            for (ID id : new LinkedHashSet<>(candidates)) {
+                byte[] key = IdKeys.encode(id);
+                long address = index.get(MappedIdIndex.hash(key), a -> sameKey(a, key));
+                if (address == 0) continue;
+                if (n == addresses.length) addresses = Arrays.copyOf(addresses, n * 2);
+                addresses[n++] = address;
+            }
+        }
+        return Arrays.copyOf(addresses, n);
+    }
+
+    private void reindex() {
+        long[] addresses = candidates(null);
+        long stale = index.getSize();
+        index.reset(addresses.length);
+        long live = 0;
+        for (long address : addresses) {
+            byte[] key = key(address);
+            long hash = MappedIdIndex.hash(key);
+            long previous = index.put(hash, address, a -> sameKey(a, key));
+            if (previous == 0) {
+                live++;
+            } else if (stamp(previous) > stamp(address)) {
+                index.put(hash, previous, a -> a == address);
+                release(address);
+            } else {
+                release(previous);
+            }
+        }
+        log.warn("Rebuilt id index of {} from {} records; the index held {} and the header {}", path, live, stale, count);
+        setCount(live);
+        header.putLong(GENERATION, index.getGeneration());
+        flush();
+        index.deleteStale();
+    }
+
+    private void store(ID id, E entity, ByteBuffer payload) {
+        if (closed) {
+            throw new IllegalStateException("Storage " + path + " is closed");
+        }
+        byte[] key = IdKeys.encode(id);
+        long hash = MappedIdIndex.hash(key);
+        int length = RECORD_HEADER - Integer.BYTES + key.length + payload.remaining();
+        int size = SizeClass.of(length + Integer.BYTES);
+        if (size > segmentSize - SEGMENT_HEADER) {
+            throw new IllegalArgumentException("Entity " + entityClass.getName() + " does not fit in a segment of " + segmentSize + " bytes");
+        }
+        long previous = index.get(hash, a -> sameKey(a, key));
+        if (previous != 0 && capacity(previous) == size) {
+            write(previous, length, key, payload);
+        } else {
+            long address = allocate(size);
+            segments.get((int) (address >>> 32)).putLong((int) address + RECORD_HEADER - Long.BYTES, nextStamp());
+            write(address, length, key, payload);
+            index.put(hash, address, a -> a == previous);
+            if (previous != 0) {
+                release(previous);
+            } else {
+                setCount(count + 1);
+            }
+            if (index.getGeneration() != header.getLong(GENERATION)) {
+                header.putLong(GENERATION, index.getGeneration());
+                header.force();
+                index.deleteStale();
+            }
+        }
+        indexes.put(id, entity);
+        version.incrementAndGet();
+    }
+
+    private void remove(ID id) {
+        byte[] key = IdKeys.encode(id);
+        lock.writeLock().lock();
+        try {
+            long address = index.remove(MappedIdIndex.hash(key), a -> sameKey(a, key));
+            if (address != 0) {
+                release(address);
+                setCount(count - 1);
+                indexes.remove(id);
+                version.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(long address, int length, byte[] key, ByteBuffer payload) {
+        MappedByteBuffer segment = segments.get((int) (address >>> 32));
+        int offset = (int) address;
+        segment.putInt(offset + Integer.BYTES, key.length);
+        segment.put(offset + RECORD_HEADER, key);
+        segment.put(offset + RECORD_HEADER + key.length, payload, payload.position(), payload.remaining());
+        segment.putInt(offset, length);
+    }
+
+    private E read(long address) {
+        MappedByteBuffer segment = segments.get((int) (address >>> 32));
+        int offset = (int) address;
+        int length = segment.getInt(offset);
+        int keyLength = segment.getInt(offset + Integer.BYTES);
+        return codec.decode(segment.slice(offset + RECORD_HEADER + keyLength, length - (RECORD_HEADER - Integer.BYTES) - keyLength));
+    }
+
+    private byte[] key(long address) {
+        MappedByteBuffer segment = segments.get((int) (address >>> 32));
+        byte[] key = new byte[segment.getInt((int) address + Integer.BYTES)];
+        segment.get((int) address + RECORD_HEADER, key);
+        return key;
+    }
+
+    private long stamp(long address) {
+        return segments.get((int) (address >>> 32)).getLong((int) address + RECORD_HEADER - Long.BYTES);
+    }
+
+    private boolean sameKey(long address, byte[] key) {
+        MappedByteBuffer segment = segments.get((int) (address >>> 32));
+        int offset = (int) address;
+        if (segment.getInt(offset) < 0 || segment.getInt(offset + Integer.BYTES) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(offset + RECORD_HEADER + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private int capacity(long address) {
+        return SizeClass.of(segments.get((int) (address >>> 32)).getInt((int) address) + Integer.BYTES);
+    }
+
+    private long allocate(int size) {
+        int freeHead = FREE_HEADS + SizeClass.index(size) * Long.BYTES;
+        long head = header.getLong(freeHead);
+        if (head != 0) {
+            header.putLong(freeHead, segments.get((int) (head >>> 32)).getLong((int) head + Integer.BYTES));
+            header.putLong(FREE_BYTES, header.getLong(FREE_BYTES) - size);
+            return head;
+        }
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segmentSize - segment.getInt(0) < size) {
+            try {
+                segment = mapSegment(segments.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segment.putInt(0, SEGMENT_HEADER);
+            segments.add(segment);
+            header.putInt(SEGMENTS, segments.size());
+        }
+        int top = segment.getInt(0);
+        segment.putInt(0, top + size);
+        return ((long) (segments.size() - 1) << 32) | top;
+    }
+
+    private void release(long address) {
+        int size = capacity(address);
+        int freeHead = FREE_HEADS + SizeClass.index(size) * Long.BYTES;
+        MappedByteBuffer segment = segments.get((int) (address >>> 32));
+        segment.putLong((int) address + Integer.BYTES, header.getLong(freeHead));
+        segment.putInt((int) address, -size);
+        header.putLong(freeHead, address);
+        header.putLong(FREE_BYTES, header.getLong(FREE_BYTES) + size);
+    }
+
+    private long nextStamp() {
+        header.putLong(STAMP, ++stamp);
+        return stamp;
+    }
+
+    private void setCount(long count) {
+        this.count = count;
+        header.putLong(COUNT, count);
+    }
+
+    private MappedByteBuffer mapSegment(int segment) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, FILE_HEADER + (long) segment * segmentSize, segmentSize);
+    }
+
+    private final class Values extends AbstractCollection<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private final ArrayDeque<E> batch = new ArrayDeque<>(SCAN_BATCH);
+
+                private final long since = stamp;
+
+                private int segment;
+
+                private int offset = SEGMENT_HEADER;
+
+                @Override
+                public boolean hasNext() {
+                    if (batch.isEmpty()) {
+                        fill();
+                    }
+                    return !batch.isEmpty();
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return batch.poll();
+                }
+
+                private void fill() {
+                    lock.readLock().lock();
+                    try {
+                        while (batch.size() < SCAN_BATCH && segment < segments.size()) {
+                            MappedByteBuffer current = segments.get(segment);
+                            if (offset >= current.getInt(0)) {
+                                segment++;
+                                offset = SEGMENT_HEADER;
+                                continue;
+                            }
+                            int length = current.getInt(offset);
+                            long address = ((long) segment << 32) | offset;
+                            if (length >= 0 && stamp(address) <= since) {
+                                batch.add(read(address));
+                            }
+                            offset += length >= 0 ? SizeClass.of(length + Integer.BYTES) : -length;
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.NONNULL);
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return count == 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,272 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing table of key hash to record address kept in a memory-mapped
+ * file. Growing the table writes a new generation file, so the previous one stays
+ * valid until the data file header points at the new generation. A missing
+ * generation file is created empty and reported by {@link #isCreated()}, so the
+ * owning storage can rebuild it from its records.
+ */
+final class MappedIdIndex implements Closeable {
+
+    private static final int MAGIC = 0x51494458;
+
+    private static final int HEADER = 64;
+
+    private static final int SLOT = 16;
+
+    private static final int CAPACITY = 8;
+
+    private static final int SIZE = 12;
+
+    private static final int TOMBSTONES = 16;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private static final long EMPTY = 0;
+
+    private static final long TOMBSTONE = 1;
+
+    private final Path directory;
+
+    private final String name;
+
+    @Getter
+    private long generation;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int capacity;
+
+    @Getter
+    private int size;
+
+    @Getter
+    private final boolean created;
+
+    private int tombstones;
+
+    MappedIdIndex(Path directory, String name, long generation) {
+        this.directory = directory;
+        this.name = name;
+        this.generation = generation;
+        Path path = path(generation);
+        this.created = !Files.exists(path);
+        try {
+            if (!created) {
+                map(path, -1);
+                if (buffer.getInt(0) != MAGIC) {
+                    throw new IllegalStateException("Corrupt id index " + path);
+                }
+                this.capacity = buffer.getInt(CAPACITY);
+                this.size = buffer.getInt(SIZE);
+                this.tombstones = buffer.getInt(TOMBSTONES);
+            } else {
+                map(path, INITIAL_CAPACITY);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleteStale();
+    }
+
+    long get(long hash, LongPredicate matches) {
+        int mask = capacity - 1;
+        for (int slot = (int) hash & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            long stored = buffer.getLong(offset(slot));
+            if (stored == EMPTY) {
+                return 0;
+            }
+            long address = buffer.getLong(offset(slot) + 8);
+            if (stored == hash && matches.test(address)) {
+                return address;
+            }
+        }
+        return 0;
+    }
+
+    long put(long hash, long address, LongPredicate matches) {
+        if ((size + tombstones + 1) * 10L > capacity * 7L) {
+            rebuild();
+        }
+        int mask = capacity - 1;
+        int reusable = -1;
+        int slot = (int) hash & mask;
+        for (int probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            long stored = buffer.getLong(offset(slot));
+            if (stored == EMPTY) {
+                break;
+            }
+            if (stored == TOMBSTONE) {
+                if (reusable < 0) reusable = slot;
+                continue;
+            }
+            long current = buffer.getLong(offset(slot) + 8);
+            if (stored == hash && matches.test(current)) {
+                buffer.putLong(offset(slot) + 8, address);
+                return current;
+            }
+        }
+        if (reusable >= 0) {
+            slot = reusable;
+            tombstones--;
+        }
+        buffer.putLong(offset(slot) + 8, address);
+        buffer.putLong(offset(slot), hash);
+        size++;
+        writeCounts();
+        return 0;
+    }
+
+    long remove(long hash, LongPredicate matches) {
+        int mask = capacity - 1;
+        for (int slot = (int) hash & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            long stored = buffer.getLong(offset(slot));
+            if (stored == EMPTY) {
+                return 0;
+            }
+            long address = buffer.getLong(offset(slot) + 8);
+            if (stored == hash && matches.test(address)) {
+                buffer.putLong(offset(slot), TOMBSTONE);
+                buffer.putLong(offset(slot) + 8, 0);
+                size--;
+                tombstones++;
+                writeCounts();
+                return address;
+            }
+        }
+        return 0;
+    }
+
+    void reset(long entries) {
+        int next = INITIAL_CAPACITY;
+        while ((entries + 1) * 10L > next * 5L && next <= MAX_CAPACITY) {
+            next <<= 1;
+        }
+        if (next > MAX_CAPACITY) {
+            throw new IllegalStateException("Id index " + name + " cannot hold more than " + MAX_CAPACITY * 7L / 10 + " entries");
+        }
+        FileChannel oldChannel = channel;
+        try {
+            map(path(generation + 1), next);
+            generation++;
+            size = 0;
+            tombstones = 0;
+            writeCounts();
+            oldChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void deleteStale() {
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, name + ".*.idx")) {
+            for (Path path : stale) {
+                if (!path.equals(path(generation))) {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    static long hash(byte[] key) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h == EMPTY || h == TOMBSTONE ? h + 2 : h;
+    }
+
+    private void rebuild() {
+        int next = capacity;
+        while ((size + 1) * 10L > next * 5L) {
+            next <<= 1;
+        }
+        if (next > MAX_CAPACITY) {
+            throw new IllegalStateException("Id index " + name + " cannot hold more than " + MAX_CAPACITY * 7L / 10 + " entries");
+        }
+        MappedByteBuffer old = buffer;
+        FileChannel oldChannel = channel;
+        int oldCapacity = capacity;
+        try {
+            map(path(generation + 1), next);
+            generation++;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldCapacity; i++) {
+                long stored = old.getLong(offset(i));
+                if (stored == EMPTY || stored == TOMBSTONE) continue;
+                int slot = (int) stored & mask;
+                while (buffer.getLong(offset(slot)) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                buffer.putLong(offset(slot), stored);
+                buffer.putLong(offset(slot) + 8, old.getLong(offset(i) + 8));
+            }
+            tombstones = 0;
+            writeCounts();
+            buffer.force();
+            oldChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(Path path, int newCapacity) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = newCapacity < 0 ? channel.size() : HEADER + (long) newCapacity * SLOT;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        if (newCapacity >= 0) {
+            capacity = newCapacity;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(CAPACITY, newCapacity);
+            writeCounts();
+        }
+    }
+
+    private void writeCounts() {
+        buffer.putInt(SIZE, size);
+        buffer.putInt(TOMBSTONES, tombstones);
+    }
+
+    private static int offset(int slot) {
+        return HEADER + slot * SLOT;
+    }
+
+    private Path path(long generation) {
+        return directory.resolve(name + "." + generation + ".idx");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import xyz.quartzframework.data.codec.EntityCodec;
+import xyz.quartzframework.data.codec.EntityCodecRegistry;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MappedStorageProvider implements StorageProvider {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private final EntityCodecRegistry codecs = new EntityCodecRegistry();
+
+    private final Map<Class<?>, MappedFileStorage<?, ?>> storages = new ConcurrentHashMap<>();
+
+    @Getter
+    private final Path directory;
+
+    @Getter
+    private final int segmentSize;
+
+    public MappedStorageProvider(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedStorageProvider(Path directory, int segmentSize) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    public <E> MappedStorageProvider register(Class<E> entityClass, EntityCodec<E> codec) {
+        codecs.register(entityClass, codec);
+        return this;
+    }
+
+    public <E> EntityCodec<E> getCodec(Class<E> entityClass) {
+        return codecs.get(entityClass);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E, ID> MappedFileStorage<E, ID> create(Class<E> entity, Class<ID> id) {
+        MappedFileStorage<?, ?> storage = storages.computeIfAbsent(entity, e -> new MappedFileStorage<>(directory, entity, id, getCodec(entity), segmentSize));
+        if (storage.getIdClass() != id) {
+            throw new IllegalStateException(entity.getName() + " is already stored with " + storage.getIdClass().getName() + " ids");
+        }
+        return (MappedFileStorage<E, ID>) storage;
+    }
+
+    @Override
+    public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
+        if (storage instanceof QueryableStorage<E, ID> queryable) {
+            return new InMemoryQueryExecutor<>(queryable);
+        }
+        return new InMemoryQueryExecutor<>(storage.findAll(), storage.getEntityClass());
+    }
+
+    public void flush() {
+        storages.values().forEach(MappedFileStorage::flush);
+    }
+
+    @PreDestroy
+    public void close() {
+        storages.values().forEach(MappedFileStorage::close);
+        storages.clear();
+    }
+}
\ No newline at end of file
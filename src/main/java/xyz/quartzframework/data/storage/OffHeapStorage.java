@@ -0,0 +1,8 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.annotation.SuperStorage;
+
+@SuperStorage(OffHeapStorageProvider.class)
+public interface OffHeapStorage<E, ID> extends SimpleStorage<E, ID> {
+
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import xyz.quartzframework.data.codec.EntityCodec;
+import xyz.quartzframework.data.codec.EntityCodecRegistry;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+public class OffHeapStorageProvider implements StorageProvider {
+
+    public static final int DEFAULT_MAX_SLAB_SIZE = 64 << 20;
+
+    private final EntityCodecRegistry codecs = new EntityCodecRegistry();
+
+    @Getter
+    private final int maxSlabSize;
+
+    public OffHeapStorageProvider() {
+        this(DEFAULT_MAX_SLAB_SIZE);
+    }
+
+    public OffHeapStorageProvider(int maxSlabSize) {
+        if (maxSlabSize <= 0) {
+            throw new IllegalArgumentException("Slab size must be positive: " + maxSlabSize);
+        }
+        this.maxSlabSize = maxSlabSize;
+    }
+
+    public <E> OffHeapStorageProvider register(Class<E> entityClass, EntityCodec<E> codec) {
+        codecs.register(entityClass, codec);
+        return this;
+    }
+
+    public <E> EntityCodec<E> getCodec(Class<E> entityClass) {
+        return codecs.get(entityClass);
+    }
+
+    @Override
+    public <E, ID> SlabStorage<E, ID> create(Class<E> entity, Class<ID> id) {
+        return new SlabStorage<>(entity, id, getCodec(entity), maxSlabSize);
+    }
+
+    @Override
+    public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
+        if (storage instanceof QueryableStorage<E, ID> queryable) {
+            return new InMemoryQueryExecutor<>(queryable);
+        }
+        return new InMemoryQueryExecutor<>(storage.findAll(), storage.getEntityClass());
+    }
+}
\ No newline at end of file
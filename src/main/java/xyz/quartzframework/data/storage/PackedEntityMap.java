@@ -0,0 +1,412 @@
+package xyz.quartzframework.data.storage;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Striped open-addressing map whose keys are packed into one or two {@code long}
+ * slots per entry, so neither lookups nor stored entries box the identifier.
+ * Writers lock a single stripe; readers probe optimistically and only fall back
+ * to the stripe's read lock when a concurrent write invalidates the probe.
+ */
+abstract class PackedEntityMap<ID, E> implements EntityMap<ID, E> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int MAX_STRIPES = 64;
+
+    private final Segment[] segments;
+
+    private final int stride;
+
+    private final int stripeShift;
+
+    private final Values values = new Values();
+
+    @SuppressWarnings("unchecked")
+    protected PackedEntityMap(int stride) {
+        this.stride = stride;
+        int stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1);
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripes);
+        this.segments = (Segment[]) new PackedEntityMap<?, ?>.Segment[stripes];
+        for (int i = 0; i < stripes; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    protected abstract long high(ID id);
+
+    protected abstract long low(ID id);
+
+    protected abstract ID id(long high, long low);
+
+    @Override
+    public E get(ID id) {
+        long high = high(id), low = low(id);
+        long hash = hash(high, low);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.tryOptimisticRead();
+        E value = segment.find(high, low, hash);
+        if (segment.lock.validate(stamp)) {
+            return value;
+        }
+        stamp = segment.lock.readLock();
+        try {
+            return segment.find(high, low, hash);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean containsKey(ID id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public E put(ID id, E entity) {
+        long high = high(id), low = low(id);
+        long hash = hash(high, low);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.slot(high, low, hash);
+            if (slot < 0) {
+                segment.insert(high, low, hash, entity);
+                return null;
+            }
+            E previous = segment.value(slot);
+            segment.entries[slot] = entity;
+            return previous;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public E remove(ID id) {
+        long high = high(id), low = low(id);
+        long hash = hash(high, low);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.slot(high, low, hash);
+            if (slot < 0) {
+                return null;
+            }
+            E previous = segment.value(slot);
+            segment.delete(slot);
+            return previous;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public E compute(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping) {
+        return update(id, remapping, false);
+    }
+
+    @Override
+    public E computeIfPresent(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping) {
+        return update(id, remapping, true);
+    }
+
+    @Override
+    public Collection<E> values() {
+        return values;
+    }
+
+    @Override
+    public List<ID> keys() {
+        List<ID> keys = new ArrayList<>(size());
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                long[] table = segment.keys;
+                Object[] entries = segment.entries;
+                for (int slot = 0; slot < entries.length; slot++) {
+                    if (entries[slot] != null) {
+                        keys.add(id(table[slot * stride], stride == 1 ? 0 : table[slot * stride + 1]));
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return keys;
+    }
+
+    private E update(ID id, BiFunction<? super ID, ? super E, ? extends E> remapping, boolean onlyIfPresent) {
+        long high = high(id), low = low(id);
+        long hash = hash(high, low);
+        Segment segment = segment(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.slot(high, low, hash);
+            if (slot < 0 && onlyIfPresent) {
+                return null;
+            }
+            E previous = slot < 0 ? null : segment.value(slot);
+            E next = remapping.apply(id, previous);
+            if (next == null) {
+                if (slot >= 0) segment.delete(slot);
+            } else if (slot >= 0) {
+                segment.entries[slot] = next;
+            } else {
+                segment.insert(high, low, hash, next);
+            }
+            return next;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private Segment segment(long hash) {
+        return segments[stripeShift == 64 ? 0 : (int) (hash >>> stripeShift)];
+    }
+
+    private static long hash(long high, long low) {
+        long h = high ^ (low * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+
+        private long[] keys = new long[INITIAL_CAPACITY * stride];
+
+        private Object[] entries = new Object[INITIAL_CAPACITY];
+
+        private volatile int size;
+
+        @SuppressWarnings("unchecked")
+        private E value(int slot) {
+            return (E) entries[slot];
+        }
+
+        @SuppressWarnings("unchecked")
+        private E find(long high, long low, long hash) {
+            long[] table = keys;
+            Object[] values = entries;
+            if (table.length != values.length * stride) {
+                return null;
+            }
+            int mask = values.length - 1;
+            for (int slot = (int) hash & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (table[slot * stride] == high && (stride == 1 || table[slot * stride + 1] == low)) {
+                    return (E) value;
+                }
+            }
+            return null;
+        }
+
+        private int slot(long high, long low, long hash) {
+            int mask = entries.length - 1;
+            for (int slot = (int) hash & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot * stride] == high && (stride == 1 || keys[slot * stride + 1] == low)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(long high, long low, long hash, Object value) {
+            if ((size + 1) * 4 > entries.length * 3) {
+                resize();
+            }
+            int mask = entries.length - 1;
+            int slot = (int) hash & mask;
+            while (entries[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot * stride] = high;
+            if (stride == 2) keys[slot * stride + 1] = low;
+            entries[slot] = value;
+            size = size + 1;
+        }
+
+        private void delete(int slot) {
+            int mask = entries.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; entries[next] != null; next = (next + 1) & mask) {
+                long high = keys[next * stride];
+                long low = stride == 1 ? 0 : keys[next * stride + 1];
+                int home = (int) hash(high, low) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole * stride] = high;
+                    if (stride == 2) keys[hole * stride + 1] = low;
+                    entries[hole] = entries[next];
+                    hole = next;
+                }
+            }
+            entries[hole] = null;
+            size = size - 1;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldEntries = entries;
+            long[] newKeys = new long[oldKeys.length * 2];
+            Object[] newEntries = new Object[oldEntries.length * 2];
+            int mask = newEntries.length - 1;
+            for (int i = 0; i < oldEntries.length; i++) {
+                if (oldEntries[i] == null) continue;
+                long high = oldKeys[i * stride];
+                long low = stride == 1 ? 0 : oldKeys[i * stride + 1];
+                int slot = (int) hash(high, low) & mask;
+                while (newEntries[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot * stride] = high;
+                if (stride == 2) newKeys[slot * stride + 1] = low;
+                newEntries[slot] = oldEntries[i];
+            }
+            keys = newKeys;
+            entries = newEntries;
+        }
+    }
+
+    /**
+     * Walks a contiguous range of stripes. Each stripe is read in place under an
+     * optimistic stamp into a buffer reused for the whole scan; if a writer touched
+     * the stripe meanwhile, only that stripe is read again under its read lock.
+     * Values are handed out after the stripe is released, so actions may write back
+     * into the map.
+     */
+    private final class SegmentSpliterator implements Spliterator<E> {
+
+        private int segment;
+
+        private final int end;
+
+        private Object[] buffer = new Object[INITIAL_CAPACITY];
+
+        private int count;
+
+        private int position;
+
+        private SegmentSpliterator(int segment, int end) {
+            this.segment = segment;
+            this.end = end;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super E> action) {
+            while (position == count) {
+                if (segment == end) {
+                    return false;
+                }
+                load(segments[segment++]);
+            }
+            E value = (E) buffer[position];
+            buffer[position++] = null;
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            if (position < count || end - segment < 2) {
+                return null;
+            }
+            int middle = (segment + end) >>> 1;
+            Spliterator<E> prefix = new SegmentSpliterator(segment, middle);
+            segment = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = count - position;
+            for (int i = segment; i < end; i++) {
+                size += segments[i].size;
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.CONCURRENT | Spliterator.NONNULL;
+        }
+
+        private void load(Segment source) {
+            long stamp = source.lock.tryOptimisticRead();
+            if (stamp != 0) {
+                collect(source.entries);
+                if (source.lock.validate(stamp)) {
+                    return;
+                }
+            }
+            stamp = source.lock.readLock();
+            try {
+                collect(source.entries);
+            } finally {
+                source.lock.unlockRead(stamp);
+            }
+        }
+
+        private void collect(Object[] entries) {
+            int n = 0;
+            for (Object value : entries) {
+                if (value == null) continue;
+                if (n == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, n * 2);
+                }
+                buffer[n++] = value;
+            }
+            if (n < count) Arrays.fill(buffer, n, count, null);
+            count = n;
+            position = 0;
+        }
+    }
+
+    private final class Values extends AbstractCollection<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return new SegmentSpliterator(0, segments.length);
+        }
+
+        @Override
+        public int size() {
+            return PackedEntityMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+}
\ No newline at end of file
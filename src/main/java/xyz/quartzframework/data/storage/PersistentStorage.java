@@ -0,0 +1,8 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.annotation.SuperStorage;
+
+@SuperStorage(MappedStorageProvider.class)
+public interface PersistentStorage<E, ID> extends SimpleStorage<E, ID> {
+
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.query.Cached;
+import xyz.quartzframework.data.query.Query;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+public class QueryCacheInterceptor implements MethodInterceptor {
+
+    private static final Set<String> WRITE_METHODS = Set.of("save", "delete", "deleteById");
+
+    private final Map<Method, Boolean> cacheable = new ConcurrentHashMap<>();
+
+    private final Map<Method, Boolean> modifying = new ConcurrentHashMap<>();
+
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong writes = new AtomicLong();
+
+    private final Class<?> storageInterface;
+
+    @Nullable
+    private final QueryableStorage<?, ?> storage;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @Getter
+    private final int maximumSize;
+
+    public QueryCacheInterceptor(Class<?> storageInterface, @Nullable SimpleStorage<?, ?> target, int maximumSize) {
+        this.storageInterface = storageInterface;
+        this.storage = target instanceof QueryableStorage<?, ?> queryable ? queryable : null;
+        this.maximumSize = maximumSize;
+    }
+
+    @Nullable
+    public static QueryCacheInterceptor forStorage(Class<?> storageInterface, @Nullable SimpleStorage<?, ?> target) {
+        Cached cached = storageInterface.getAnnotation(Cached.class);
+        int maximumSize = cached == null ? -1 : cached.maximumSize();
+        for (Method method : storageInterface.getMethods()) {
+            Cached methodCache = method.getAnnotation(Cached.class);
+            if (methodCache != null) {
+                maximumSize = Math.max(maximumSize, methodCache.maximumSize());
+            }
+        }
+        return maximumSize < 0 ? null : new QueryCacheInterceptor(storageInterface, target, maximumSize);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (modifying.computeIfAbsent(method, this::isModifying)) {
+            try {
+                return invocation.proceed();
+            } finally {
+                writes.incrementAndGet();
+            }
+        }
+        if (!cacheable.computeIfAbsent(method, this::isCacheable)) {
+            return invocation.proceed();
+        }
+        CacheKey key = new CacheKey(method, CacheKey.copy(invocation.getArguments()));
+        long version = version();
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            hits.increment();
+            entry.accessed = System.nanoTime();
+            return entry.value;
+        }
+        misses.increment();
+        Object value = freeze(invocation.proceed());
+        entries.put(key, new CacheEntry(value, version, System.nanoTime()));
+        if (entries.size() > maximumSize) {
+            evict();
+        }
+        return value;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Approximate LRU: drops the least recently read entries plus a tenth of the
+     * capacity in one pass, so the sort is amortised over many inserts and reads
+     * never take a lock.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - maximumSize;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<CacheKey, CacheEntry>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().accessed));
+            int evicted = Math.min(candidates.size(), excess + maximumSize / 10);
+            for (int i = 0; i < evicted; i++) {
+                entries.remove(candidates.get(i).getKey(), candidates.get(i).getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private long version() {
+        return writes.get() + (storage == null ? 0 : storage.getVersion());
+    }
+
+    private boolean isModifying(Method method) {
+        if (WRITE_METHODS.contains(method.getName())) {
+            return true;
+        }
+        Query query = method.getAnnotation(Query.class);
+        String name = query == null ? method.getName() : query.value().trim().toLowerCase(Locale.ROOT);
+        return name.startsWith("delete") || name.startsWith("update");
+    }
+
+    private boolean isCacheable(Method method) {
+        if (Stream.class.isAssignableFrom(method.getReturnType()) || method.getReturnType() == void.class) {
+            return false;
+        }
+        if (method.isAnnotationPresent(Cached.class)) {
+            return true;
+        }
+        if (!storageInterface.isAnnotationPresent(Cached.class)) {
+            return false;
+        }
+        if (method.isAnnotationPresent(Query.class)) {
+            return true;
+        }
+        try {
+            SimpleStorage.class.getMethod(method.getName(), method.getParameterTypes());
+            return false;
+        } catch (NoSuchMethodException e) {
+            String name = method.getName();
+            return name.matches("^(find|count|exists|sum|avg|min|max).*");
+        }
+    }
+
+    /**
+     * Detaches a result from anything the executor or caller can still mutate, so every hit sees the value
+     * as it was when it was cached. Pages are rebuilt around a copy of their content, which may otherwise
+     * be a live view of the storage's result list.
+     */
+    private static Object freeze(Object value) {
+        if (value instanceof List<?> list) {
+            return Collections.unmodifiableList(new ArrayList<>(list));
+        }
+        if (value instanceof Set<?> set) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(set));
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, map.size() * 2));
+            map.forEach((key, element) -> copy.put(key, freeze(element)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof Page<?> page) {
+            return Page.of((List<?>) freeze(page.content()), page.page(), page.size(), page.totalElements());
+        }
+        if (value instanceof CursorPage<?> page) {
+            return new CursorPage<>((List<?>) freeze(page.content()), page.size(), page.sort(), page.nextCursor());
+        }
+        return value;
+    }
+
+    private static final class CacheEntry {
+
+        private final Object value;
+
+        private final long version;
+
+        private volatile long accessed;
+
+        private CacheEntry(Object value, long version, long accessed) {
+            this.value = value;
+            this.version = version;
+            this.accessed = accessed;
+        }
+    }
+
+    private record CacheKey(Method method, Object[] args) {
+
+        private static Object[] copy(Object[] args) {
+            Object[] copy = args.clone();
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i] instanceof Set<?> set) {
+                    copy[i] = Collections.unmodifiableSet(new LinkedHashSet<>(set));
+                } else if (copy[i] instanceof Collection<?> collection) {
+                    copy[i] = Collections.unmodifiableList(new ArrayList<>(collection));
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CacheKey other && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + Arrays.deepHashCode(args);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.query.DynamicQueryDefinition;
+import xyz.quartzframework.data.query.QueryExecutor;
+
+public record QueryPlan(
+        DynamicQueryDefinition query,
+        String queryString,
+        long requiredArguments,
+        ResultAdapter resultAdapter
+) {
+
+    public Object execute(QueryExecutor<?> executor, Object[] args) {
+        if (args.length < requiredArguments) {
+            throw new IllegalStateException("Expected " + requiredArguments + " arguments for query '" + queryString + "', but got " + args.length);
+        }
+        return resultAdapter.adapt(executor, query, args);
+    }
+
+    @FunctionalInterface
+    public interface ResultAdapter {
+
+        Object adapt(QueryExecutor<?> executor, DynamicQueryDefinition query, Object[] args);
+
+    }
+}
\ No newline at end of file
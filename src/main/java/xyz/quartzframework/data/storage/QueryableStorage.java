@@ -0,0 +1,23 @@
+package xyz.quartzframework.data.storage;
+
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.index.AttributeIndex;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public interface QueryableStorage<E, ID> extends SimpleStorage<E, ID> {
+
+    Collection<E> values();
+
+    long getVersion();
+
+    @Nullable
+    AttributeIndex<ID> getIndex(String attribute);
+
+    long removeIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter);
+
+    long updateIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter, Consumer<? super E> update);
+
+}
\ No newline at end of file
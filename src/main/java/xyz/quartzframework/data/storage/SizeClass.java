@@ -0,0 +1,34 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class SizeClass {
+
+    private final int MIN = 16;
+
+    public int of(int bytes) {
+        if (bytes <= MIN) {
+            return MIN;
+        }
+        int step = Integer.highestOneBit(bytes - 1) >> 2;
+        return (bytes + step - 1) & -step;
+    }
+
+    public int index(int size) {
+        if (size <= MIN) {
+            return 0;
+        }
+        int power = 31 - Integer.numberOfLeadingZeros(size - 1);
+        int step = 1 << (power - 2);
+        return (power - 4) * 4 + (size + step - 1) / step - 4;
+    }
+
+    public int size(int index) {
+        if (index == 0) {
+            return MIN;
+        }
+        int power = (index - 1) / 4 + 4;
+        return (1 << (power - 2)) * (4 + (index - 1) % 4 + 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,482 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.codec.EntityCodec;
+import xyz.quartzframework.data.index.AttributeIndex;
+import xyz.quartzframework.data.index.EntityIndexes;
+import xyz.quartzframework.data.metrics.StorageWriteEvent;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.util.IdentityUtil;
+import xyz.quartzframework.data.util.SortUtil;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keeps entities serialized in direct {@link ByteBuffer} slabs. Each record is a
+ * length header and the version it was allocated at, followed by the codec
+ * payload, padded to a size class so freed records can be reused by any later
+ * payload of the same class. Only the id to address map and {@code @Indexed}
+ * attribute indexes stay on the heap.
+ * <p>
+ * Scans skip records allocated after the scan started, so an entity that a
+ * concurrent write moves to another address is never returned twice; if the
+ * move happens before the scan reaches its old address, the scan misses it.
+ */
+public class SlabStorage<E, ID> implements OffHeapStorage<E, ID>, QueryableStorage<E, ID> {
+
+    private static final int HEADER = Integer.BYTES + Long.BYTES;
+
+    private static final int INITIAL_SLAB_SIZE = 64 << 10;
+
+    private static final int SCAN_BATCH = 128;
+
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Slab> slabs = new ArrayList<>();
+
+    private final Map<Integer, FreeList> free = new HashMap<>();
+
+    private final EntityMap<ID, Long> addresses;
+
+    private final EntityIndexes<E, ID> indexes;
+
+    private final EntityCodec<E> codec;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Values values = new Values();
+
+    private final int maxSlabSize;
+
+    private long freeBytes;
+
+    @Getter
+    private final Class<E> entityClass;
+
+    @Getter
+    private final Class<ID> idClass;
+
+    public SlabStorage(Class<E> entityClass, Class<ID> idClass, EntityCodec<E> codec, int maxSlabSize) {
+        this.entityClass = entityClass;
+        this.idClass = idClass;
+        this.codec = codec;
+        this.maxSlabSize = maxSlabSize;
+        this.addresses = EntityMap.forIdClass(idClass);
+        this.indexes = new EntityIndexes<>(entityClass);
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        lock.readLock().lock();
+        try {
+            Long address = addresses.get(id);
+            return address == null ? Optional.empty() : Optional.of(read(address));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return addresses.size();
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        return addresses.containsKey(id);
+    }
+
+    @Override
+    public Page<E> findAll(Pagination pagination) {
+        if (Pagination.isUnpaged(pagination)) {
+            return Page.fromList(findAll(pagination.sort()), pagination);
+        }
+        int total = addresses.size();
+        int end = (int) Math.min((long) pagination.offset() + pagination.size(), Integer.MAX_VALUE);
+        List<E> window = pagination.sort().isSorted()
+                ? values.stream().collect(SortUtil.top(SortUtil.comparator(entityClass, pagination.sort()), end))
+                : values.stream().limit(end).toList();
+        int from = Math.min(pagination.offset(), window.size());
+        return Page.of(window.subList(from, window.size()), pagination, total);
+    }
+
+    @Override
+    public E save(E entity) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        ID id = IdentityUtil.extractId(entity, idClass);
+        ByteBuffer payload = encode(entity);
+        lock.writeLock().lock();
+        try {
+            store(id, entity, payload);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(event, "save", 1);
+        return entity;
+    }
+
+    @Override
+    public List<E> save(Iterable<E> entities) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        List<E> saved = new ArrayList<>();
+        for (E entity : entities) {
+            ID id = IdentityUtil.extractId(entity, idClass);
+            ByteBuffer payload = encode(entity);
+            lock.writeLock().lock();
+            try {
+                store(id, entity, payload);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            saved.add(entity);
+        }
+        commit(event, "save", saved.size());
+        return saved;
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        remove(id);
+        commit(event, "delete", 1);
+    }
+
+    @Override
+    public void delete(E entity) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        remove(IdentityUtil.extractId(entity, idClass));
+        commit(event, "delete", 1);
+    }
+
+    @Override
+    public void delete(Iterable<E> entities) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long deleted = 0;
+        for (E entity : entities) {
+            remove(IdentityUtil.extractId(entity, idClass));
+            deleted++;
+        }
+        commit(event, "delete", deleted);
+    }
+
+    @Nullable
+    @Override
+    public AttributeIndex<ID> getIndex(String attribute) {
+        return indexes.get(attribute);
+    }
+
+    @Override
+    public Collection<E> values() {
+        return values;
+    }
+
+    @Override
+    public List<E> findAll() {
+        return new ArrayList<>(values);
+    }
+
+    @Override
+    public List<E> findAll(Sort sort) {
+        List<E> result = new ArrayList<>(values);
+        if (sort.isSorted()) {
+            result.sort(SortUtil.comparator(entityClass, sort));
+        }
+        return result;
+    }
+
+    @Override
+    public long removeIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long removed = 0;
+        lock.writeLock().lock();
+        try {
+            for (ID id : candidates == null ? addresses.keys() : List.copyOf(candidates)) {
+                Long address = addresses.get(id);
+                if (address != null && filter.test(read(address))) {
+                    release(addresses.remove(id));
+                    indexes.remove(id);
+                    removed++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed > 0) version.addAndGet(removed);
+        commit(event, "deleteByQuery", removed);
+        return removed;
+    }
+
+    @Override
+    public long updateIf(@Nullable Collection<ID> candidates, Predicate<? super E> filter, Consumer<? super E> update) {
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        long updated = 0;
+        lock.writeLock().lock();
+        try {
+            for (ID id : candidates == null ? addresses.keys() : List.copyOf(candidates)) {
+                Long address = addresses.get(id);
+                if (address == null) continue;
+                E current = read(address);
+                if (!filter.test(current)) continue;
+                update.accept(current);
+                store(id, current, encode(current));
+                updated++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(event, "updateByQuery", updated);
+        return updated;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return slabs.stream().mapToLong(slab -> slab.buffer.capacity()).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getFreeBytes() {
+        lock.readLock().lock();
+        try {
+            return freeBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void commit(StorageWriteEvent event, String operation, long entities) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.entity = entityClass.getName();
+            event.operation = operation;
+            event.entities = entities;
+            event.commit();
+        }
+    }
+
+    private ByteBuffer encode(E entity) {
+        ByteBuffer buffer = scratch.get();
+        while (true) {
+            buffer.clear();
+            try {
+                codec.encode(entity, buffer);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                if (buffer.capacity() >= maxSlabSize) {
+                    throw new IllegalArgumentException("Entity " + entityClass.getName() + " does not fit in a slab of " + maxSlabSize + " bytes");
+                }
+                buffer = ByteBuffer.allocate((int) Math.min((long) buffer.capacity() * 2, maxSlabSize));
+                scratch.set(buffer);
+            }
+        }
+    }
+
+    private void store(ID id, E entity, ByteBuffer payload) {
+        long stamp = version.incrementAndGet();
+        int length = payload.remaining();
+        int size = SizeClass.of(length + HEADER);
+        Long previous = addresses.get(id);
+        long address;
+        if (previous != null && capacity(previous) == size) {
+            address = previous;
+        } else {
+            if (previous != null) release(previous);
+            address = allocate(size);
+            addresses.put(id, address);
+            slabs.get((int) (address >>> 32)).buffer.putLong((int) address + Integer.BYTES, stamp);
+        }
+        ByteBuffer buffer = slabs.get((int) (address >>> 32)).buffer;
+        int offset = (int) address;
+        buffer.putInt(offset, length);
+        buffer.put(offset + HEADER, payload, payload.position(), length);
+        indexes.put(id, entity);
+    }
+
+    private void remove(ID id) {
+        lock.writeLock().lock();
+        try {
+            Long address = addresses.remove(id);
+            if (address != null) {
+                release(address);
+                indexes.remove(id);
+                version.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private E read(long address) {
+        ByteBuffer buffer = slabs.get((int) (address >>> 32)).buffer;
+        int offset = (int) address;
+        return codec.decode(buffer.slice(offset + HEADER, buffer.getInt(offset)));
+    }
+
+    private int capacity(long address) {
+        return SizeClass.of(slabs.get((int) (address >>> 32)).buffer.getInt((int) address) + HEADER);
+    }
+
+    private long allocate(int size) {
+        FreeList list = free.get(size);
+        if (list != null && !list.isEmpty()) {
+            freeBytes -= size;
+            return list.pop();
+        }
+        Slab slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.buffer.capacity() - slab.top < size) {
+            int next = slab == null ? INITIAL_SLAB_SIZE : (int) Math.min((long) slab.buffer.capacity() * 2, maxSlabSize);
+            slab = new Slab(ByteBuffer.allocateDirect(Math.max(next, size)));
+            slabs.add(slab);
+        }
+        long address = ((long) (slabs.size() - 1) << 32) | slab.top;
+        slab.top += size;
+        return address;
+    }
+
+    private void release(long address) {
+        int size = capacity(address);
+        slabs.get((int) (address >>> 32)).buffer.putInt((int) address, -size);
+        free.computeIfAbsent(size, s -> new FreeList()).push(address);
+        freeBytes += size;
+    }
+
+    private static final class Slab {
+
+        private final ByteBuffer buffer;
+
+        private int top;
+
+        private Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class FreeList {
+
+        private long[] addresses = new long[8];
+
+        private int size;
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(long address) {
+            if (size == addresses.length) {
+                addresses = Arrays.copyOf(addresses, size * 2);
+            }
+            addresses[size++] = address;
+        }
+
+        private long pop() {
+            return addresses[--size];
+        }
+    }
+
+    private final class Values extends AbstractCollection<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private final ArrayDeque<E> batch = new ArrayDeque<>(SCAN_BATCH);
+
+                private final long since = version.get();
+
+                private int slab;
+
+                private int offset;
+
+                @Override
+                public boolean hasNext() {
+                    if (batch.isEmpty()) {
+                        fill();
+                    }
+                    return !batch.isEmpty();
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return batch.poll();
+                }
+
+                private void fill() {
+                    lock.readLock().lock();
+                    try {
+                        while (batch.size() < SCAN_BATCH && slab < slabs.size()) {
+                            Slab current = slabs.get(slab);
+                            if (offset >= current.top) {
+                                slab++;
+                                offset = 0;
+                                continue;
+                            }
+                            int header = current.buffer.getInt(offset);
+                            if (header >= 0 && current.buffer.getLong(offset + Integer.BYTES) <= since) {
+                                batch.add(read(((long) slab << 32) | offset));
+                            }
+                            offset += header >= 0 ? SizeClass.of(header + HEADER) : -header;
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.NONNULL);
+        }
+
+        @Override
+        public int size() {
+            return addresses.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+}
\ No newline at end of file
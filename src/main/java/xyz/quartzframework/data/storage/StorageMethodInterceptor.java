@@ -1,22 +1,38 @@
 package xyz.quartzframework.data.storage;
 
-import lombok.RequiredArgsConstructor;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.metrics.MetricsInterceptor;
+import xyz.quartzframework.data.metrics.QueryExecutionEvent;
+import xyz.quartzframework.data.metrics.QueryParseEvent;
+import xyz.quartzframework.data.metrics.ScanTracker;
+import xyz.quartzframework.data.metrics.SlowQueryLog;
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.CursorRequest;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.query.CompositeQueryParser;
 import xyz.quartzframework.data.query.DynamicQueryDefinition;
+import xyz.quartzframework.data.query.ParameterBindingException;
 import xyz.quartzframework.data.query.Query;
+import xyz.quartzframework.data.query.QueryAssignment;
 import xyz.quartzframework.data.query.QueryExecutor;
 import xyz.quartzframework.data.query.QueryParser;
+import xyz.quartzframework.data.query.QuerySubstitution;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
-@RequiredArgsConstructor
 public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
 
+    private final Map<Method, Optional<QueryPlan>> plans = new ConcurrentHashMap<>();
+
+    private final Map<Method, Method> redeclared = new ConcurrentHashMap<>();
+
     private final QueryParser queryParser;
 
     private final QueryExecutor<E> executor;
@@ -25,86 +41,266 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
 
     private final Class<ID> idType;
 
+    @Nullable
+    private final SlowQueryLog slowQueryLog;
+
+    public StorageMethodInterceptor(QueryParser queryParser, QueryExecutor<E> executor, Class<E> entityType, Class<ID> idType) {
+        this(queryParser, executor, entityType, idType, null);
+    }
+
+    public StorageMethodInterceptor(QueryParser queryParser, QueryExecutor<E> executor, Class<E> entityType, Class<ID> idType,
+                                    @Nullable SlowQueryLog slowQueryLog) {
+        this.queryParser = queryParser;
+        this.executor = executor;
+        this.entityType = entityType;
+        this.idType = idType;
+        this.slowQueryLog = slowQueryLog;
+    }
+
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        Method method = invocation.getMethod();
+        Optional<QueryPlan> plan = plans.computeIfAbsent(invocation.getMethod(), this::compile);
+        if (plan.isEmpty()) {
+            Method storageMethod = redeclared.get(invocation.getMethod());
+            return storageMethod == null || invocation.getThis() == null ? invocation.proceed() : invokeStorage(invocation, storageMethod);
+        }
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        if ((slowQueryLog == null || !slowQueryLog.isEnabled()) && !event.isEnabled()) {
+            return plan.get().execute(executor, invocation.getArguments());
+        }
+        QueryPlan query = plan.get();
+        Object[] args = invocation.getArguments();
+        ScanTracker.Scan outer = ScanTracker.begin();
+        event.begin();
+        long started = System.nanoTime();
+        Object result = null;
+        try {
+            result = query.execute(executor, args);
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            event.end();
+            ScanTracker.Scan scan = ScanTracker.end(outer);
+            if (event.shouldCommit()) {
+                event.storage = entityType.getName();
+                event.method = invocation.getMethod().getName();
+                event.action = query.query().action().name();
+                event.accessPath = scan.accessPath() == null ? null : scan.accessPath().name();
+                event.rowsScanned = scan.rows();
+                event.rowsReturned = MetricsInterceptor.rows(result);
+                event.commit();
+            }
+            if (slowQueryLog != null && slowQueryLog.isSlow(elapsed)) {
+                long returned = query.query().action().isModifying() && result instanceof Number affected
+                        ? affected.longValue()
+                        : MetricsInterceptor.rows(result);
+                slowQueryLog.record(invocation.getMethod(), query.queryString(), query.query(), args, elapsed,
+                        scan.accessPath(), scan.rows(), returned, executor);
+            }
+        }
+    }
+
+    private Object invokeStorage(MethodInvocation invocation, Method storageMethod) throws Throwable {
+        try {
+            return storageMethod.invoke(invocation.getThis(), invocation.getArguments());
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Optional<QueryPlan> compile(Method method) {
         if (method.getDeclaringClass().equals(Object.class)
                 || method.getName().equals("toString")
                 || method.getName().equals("equals")
                 || method.getName().equals("hashCode")) {
-            return invocation.proceed();
+            return Optional.empty();
         }
         if (method.isDefault()) {
-            return invocation.proceed();
+            return Optional.empty();
         }
-        if (!isDynamicMethod(method)) return invocation.proceed();
+        Method storageMethod = storageMethod(method);
+        if (storageMethod != null && !storageMethod.equals(method)) {
+            redeclared.put(method, storageMethod);
+        }
+        if (storageMethod != null || !isDynamicMethod(method)) return Optional.empty();
+        QueryParseEvent event = new QueryParseEvent();
+        event.begin();
         DynamicQueryDefinition query = queryParser.parse(method, new StorageDefinition(entityType, idType));
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method.getDeclaringClass().getName() + "." + method.getName();
+            event.parser = (queryParser instanceof CompositeQueryParser composite ? composite.resolve(method) : queryParser).getClass().getSimpleName();
+            event.action = query.action().name();
+            event.commit();
+        }
         String queryString = queryParser.queryString(method);
         validateReturnType(method, query);
-        Object[] args = invocation.getArguments();
-        long dynamicSubstitutions = query
-                .querySubstitutions()
-                .stream()
+        List<QuerySubstitution> dynamic = Stream.concat(
+                        query.querySubstitutions().stream(),
+                        query.assignments().stream().map(QueryAssignment::value))
                 .filter(sub -> !sub.isLiteral())
-                .count();
-        if (args.length < dynamicSubstitutions) {
-            throw new IllegalStateException("Expected " + dynamicSubstitutions + " arguments for query '" + queryString + "', but got " + args.length);
+                .toList();
+        if (query.action().isModifying()) {
+            validateParameters(method, dynamic);
         }
+        long dynamicSubstitutions = dynamic.size();
+        return Optional.of(new QueryPlan(query, queryString, dynamicSubstitutions, resultAdapter(method, query, queryString)));
+    }
+
+    private QueryPlan.ResultAdapter resultAdapter(Method method, DynamicQueryDefinition query, String queryString) {
         Class<?> returnType = method.getReturnType();
+        if (query.isAggregate()) {
+            return aggregateAdapter(returnType, queryString);
+        }
         return switch (query.action()) {
-            case FIND -> handleFind(query, returnType, args, queryString);
-            case COUNT -> {
-                if (isNumeric(returnType)) yield executor.count(query, args);
-                throw new UnsupportedOperationException("COUNT must return numeric type: " + method.getName());
-            }
-            case EXISTS -> {
-                if (returnType == boolean.class || returnType == Boolean.class) yield executor.exists(query, args);
-                throw new UnsupportedOperationException("EXISTS must return boolean: " + method.getName());
+            case FIND -> findAdapter(method, returnType, queryString);
+            case COUNT -> (executor, q, args) -> executor.count(q, args);
+            case EXISTS -> (executor, q, args) -> executor.exists(q, args);
+            case DELETE -> modifyingAdapter(returnType, QueryExecutor::delete);
+            case UPDATE -> modifyingAdapter(returnType, QueryExecutor::update);
+            default -> throw new UnsupportedOperationException("Unsupported query action: " + query.action());
+        };
+    }
+
+    private QueryPlan.ResultAdapter aggregateAdapter(Class<?> returnType, String queryString) {
+        if (Map.class.isAssignableFrom(returnType)) return QueryExecutor::aggregate;
+        if (Optional.class.isAssignableFrom(returnType)) return (executor, q, args) -> Optional.ofNullable(executor.aggregate(q, args));
+        return (executor, q, args) -> {
+            Object value = executor.aggregate(q, args);
+            if (value == null) {
+                if (returnType.isPrimitive()) {
+                    throw new IllegalStateException("No result found for: " + queryString);
+                }
+                return null;
             }
+            return value instanceof Number number ? convert(number, returnType) : value;
         };
     }
 
-    private Object handleFind(DynamicQueryDefinition query, Class<?> returnType, Object[] args, String methodName) {
+    private QueryPlan.ResultAdapter modifyingAdapter(Class<?> returnType, QueryPlan.ResultAdapter operation) {
+        if (returnType == void.class) {
+            return (executor, q, args) -> {
+                operation.adapt(executor, q, args);
+                return null;
+            };
+        }
+        return (executor, q, args) -> convert((Number) operation.adapt(executor, q, args), returnType);
+    }
+
+    private Object convert(Number number, Class<?> returnType) {
+        if (returnType == int.class || returnType == Integer.class) return number.intValue();
+        if (returnType == long.class || returnType == Long.class) return number.longValue();
+        if (returnType == double.class || returnType == Double.class) return number.doubleValue();
+        if (returnType == float.class || returnType == Float.class) return number.floatValue();
+        if (returnType == short.class || returnType == Short.class) return number.shortValue();
+        if (returnType == byte.class || returnType == Byte.class) return number.byteValue();
+        return number;
+    }
+
+    private QueryPlan.ResultAdapter findAdapter(Method method, Class<?> returnType, String methodName) {
         if (Page.class.isAssignableFrom(returnType)) {
-            Pagination pagination = Arrays.stream(args)
-                    .filter(Pagination.class::isInstance)
-                    .map(Pagination.class::cast)
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Pagination required for paged method"));
-            return executor.find(query, args, pagination);
-        }
-        List<?> results = executor.find(query, args);
-        if (Set.class.isAssignableFrom(returnType)) return new HashSet<>(results);
-        if (Stream.class.isAssignableFrom(returnType)) return results.stream();
-        if (List.class.isAssignableFrom(returnType)) return results;
-        if (Optional.class.isAssignableFrom(returnType)) return results.stream().findFirst();
+            int slot = parameterSlot(method, Pagination.class);
+            return (executor, q, args) -> {
+                if (!(args[slot] instanceof Pagination pagination)) {
+                    throw new IllegalArgumentException("Pagination required for paged method");
+                }
+                return executor.find(q, args, pagination);
+            };
+        }
+        if (CursorPage.class.isAssignableFrom(returnType)) {
+            int slot = parameterSlot(method, CursorRequest.class);
+            return (executor, q, args) -> {
+                if (!(args[slot] instanceof CursorRequest request)) {
+                    throw new IllegalArgumentException("CursorRequest required for keyset paged method");
+                }
+                return executor.find(q, args, request);
+            };
+        }
+        if (Set.class.isAssignableFrom(returnType)) return (executor, q, args) -> new HashSet<>(executor.find(q, args));
+        if (Stream.class.isAssignableFrom(returnType)) return QueryExecutor::stream;
+        if (List.class.isAssignableFrom(returnType)) return QueryExecutor::find;
+        if (Optional.class.isAssignableFrom(returnType)) return (executor, q, args) -> executor.stream(q, args).findFirst();
         if (entityType.isAssignableFrom(returnType)) {
-            return results.stream().findFirst()
+            return (executor, q, args) -> executor.stream(q, args).findFirst()
                     .orElseThrow(() -> new IllegalStateException("No result found for: " + methodName));
         }
         throw new UnsupportedOperationException("Unsupported return type in FIND: " + returnType.getName());
     }
 
-    private boolean isNumeric(Class<?> type) {
-        return type == long.class || type == Long.class || Number.class.isAssignableFrom(type);
+    private int parameterSlot(Method method, Class<?> type) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (type.isAssignableFrom(parameterTypes[i])) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(type.getSimpleName() + " required for paged method");
     }
 
     private boolean isDynamicMethod(Method method) {
         if (method.isAnnotationPresent(Query.class)) return true;
-        try {
-            SimpleStorage.class.getMethod(method.getName(), method.getParameterTypes());
-            return false;
-        } catch (NoSuchMethodException e) {
-            String name = method.getName();
-            return name.startsWith("find") ||
-                    name.startsWith("count") ||
-                    name.startsWith("exists");
+        String name = method.getName();
+        return name.startsWith("find") ||
+                name.startsWith("count") ||
+                name.startsWith("exists") ||
+                name.startsWith("sum") ||
+                name.startsWith("avg") ||
+                name.startsWith("min") ||
+                name.startsWith("max") ||
+                name.startsWith("deleteBy");
+    }
+
+    /**
+     * Matches redeclared storage methods as well as inherited ones: {@code delete(MyEntity)} does not
+     * share the erased {@code delete(Object)} signature, but must still reach the storage.
+     */
+    @Nullable
+    private Method storageMethod(Method method) {
+        if (method.isAnnotationPresent(Query.class)) {
+            return null;
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (Method candidate : SimpleStorage.class.getMethods()) {
+            if (!candidate.getName().equals(method.getName()) || candidate.getParameterCount() != parameterTypes.length) {
+                continue;
+            }
+            Class<?>[] declared = candidate.getParameterTypes();
+            boolean matches = true;
+            for (int i = 0; i < declared.length && matches; i++) {
+                matches = declared[i].isAssignableFrom(parameterTypes[i]);
+            }
+            if (matches) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void validateParameters(Method method, List<QuerySubstitution> substitutions) {
+        boolean[] used = new boolean[method.getParameterCount()];
+        for (QuerySubstitution substitution : substitutions) {
+            Integer index = substitution.getParameterIndex();
+            if (index != null && index >= 0 && index < used.length) {
+                used[index] = true;
+            }
+        }
+        for (int i = 0; i < used.length; i++) {
+            if (!used[i]) {
+                throw new ParameterBindingException("Parameter " + method.getParameters()[i].getName()
+                        + " of modifying method " + method.getName() + " is not used by any condition");
+            }
         }
     }
 
     private void validateReturnType(Method method, DynamicQueryDefinition query) {
         Class<?> returnType = method.getReturnType();
         String methodName = method.getName();
+        if (query.groupBy() != null) {
+            if (!Map.class.isAssignableFrom(returnType)) {
+                throw new UnsupportedOperationException("GROUP BY must return Map: " + methodName);
+            }
+            return;
+        }
         switch (query.action()) {
             case FIND -> {
                 if (!isSupportedFindReturnType(returnType)) {
@@ -121,15 +317,36 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
                     throw new UnsupportedOperationException("COUNT must return numeric type: " + methodName);
                 }
             }
+            case SUM, AVG -> {
+                if (!(isNumeric(returnType) || Optional.class.isAssignableFrom(returnType))) {
+                    throw new UnsupportedOperationException(query.action() + " must return numeric type: " + methodName);
+                }
+            }
+            case MIN, MAX -> {
+                if (returnType == void.class) {
+                    throw new UnsupportedOperationException(query.action() + " must return a value: " + methodName);
+                }
+            }
+            case DELETE, UPDATE -> {
+                if (!(returnType == void.class || isNumeric(returnType))) {
+                    throw new UnsupportedOperationException(query.action() + " must return void or numeric type: " + methodName);
+                }
+            }
         }
     }
 
+    private boolean isNumeric(Class<?> returnType) {
+        return (returnType.isPrimitive() && returnType != boolean.class && returnType != char.class && returnType != void.class)
+                || Number.class.isAssignableFrom(returnType);
+    }
+
     private boolean isSupportedFindReturnType(Class<?> returnType) {
         return List.class.isAssignableFrom(returnType) ||
                 Set.class.isAssignableFrom(returnType) ||
                 Stream.class.isAssignableFrom(returnType) ||
                 Optional.class.isAssignableFrom(returnType) ||
                 Page.class.isAssignableFrom(returnType) ||
+                CursorPage.class.isAssignableFrom(returnType) ||
                 entityType.isAssignableFrom(returnType);
     }
 }
@@ -0,0 +1,11 @@
+package xyz.quartzframework.data.storage;
+
+public enum SyncPolicy {
+
+    ALWAYS,
+
+    INTERVAL,
+
+    NONE
+
+}
\ No newline at end of file
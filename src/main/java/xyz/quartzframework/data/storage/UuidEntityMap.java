@@ -0,0 +1,25 @@
+package xyz.quartzframework.data.storage;
+
+import java.util.UUID;
+
+class UuidEntityMap<E> extends PackedEntityMap<UUID, E> {
+
+    UuidEntityMap() {
+        super(2);
+    }
+
+    @Override
+    protected long high(UUID id) {
+        return id.getMostSignificantBits();
+    }
+
+    @Override
+    protected long low(UUID id) {
+        return id.getLeastSignificantBits();
+    }
+
+    @Override
+    protected UUID id(long high, long low) {
+        return new UUID(high, low);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,580 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.codec.EntityCodec;
+import xyz.quartzframework.data.util.IdentityUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only change log for an in-memory storage. Changes are recorded and
+ * applied under one append lock, so the log order always matches the order the
+ * storage saw them; forcing the log to disk happens outside that lock, and a
+ * single {@code force} covers every record appended before it (group commit).
+ * <p>
+ * Snapshots rotate the log first and then write the live entities, so replaying
+ * the logs newer than a snapshot over it is idempotent even though writers keep
+ * running while it is taken.
+ */
+@Slf4j
+public class WriteAheadLog<E, ID> implements Closeable {
+
+    private static final int MAGIC = 0x51534E50;
+
+    private static final int FORMAT = 1;
+
+    private static final int SNAPSHOT_HEADER = 16;
+
+    private static final int RECORD_HEADER = 8;
+
+    private static final byte PUT = 1;
+
+    private static final byte DELETE = 2;
+
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
+    private static final int READ_BUFFER = 64 << 10;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private final Object syncMonitor = new Object();
+
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+
+    private final LongAdder syncs = new LongAdder();
+
+    private final Recorder recorder = new Recorder();
+
+    @Getter
+    private final DurabilityOptions options;
+
+    private final Class<E> entityClass;
+
+    private final Class<ID> idClass;
+
+    private final EntityCodec<E> codec;
+
+    private final String name;
+
+    @Nullable
+    private ScheduledExecutorService scheduler;
+
+    @Nullable
+    private Collection<E> source;
+
+    @Nullable
+    private FileChannel channel;
+
+    @Getter
+    private long sequence;
+
+    private long written;
+
+    private long logBytes;
+
+    private volatile long synced;
+
+    private volatile boolean closed;
+
+    @Getter
+    private long recoveredRecords;
+
+    public WriteAheadLog(DurabilityOptions options, Class<E> entityClass, Class<ID> idClass, EntityCodec<E> codec) {
+        if (!IdKeys.isSupported(idClass)) {
+            throw new IllegalArgumentException("Durable storages support UUID, integral, String and enum ids, not " + idClass.getName());
+        }
+        this.options = options;
+        this.entityClass = entityClass;
+        this.idClass = idClass;
+        this.codec = codec;
+        this.name = entityClass.getName();
+    }
+
+    public void open(Collection<E> values, BiConsumer<ID, E> put, Consumer<ID> delete) {
+        appendLock.lock();
+        try {
+            if (channel != null) {
+                throw new IllegalStateException("Write-ahead log for " + name + " is already open");
+            }
+            Files.createDirectories(options.directory());
+            long covered = -1;
+            Path snapshot = snapshotPath();
+            if (Files.exists(snapshot)) {
+                covered = replaySnapshot(snapshot, put);
+            }
+            List<Long> logs = logSequences();
+            for (int i = 0; i < logs.size(); i++) {
+                long logSequence = logs.get(i);
+                if (logSequence <= covered) {
+                    Files.deleteIfExists(logPath(logSequence));
+                } else {
+                    logBytes += replayLog(logPath(logSequence), i == logs.size() - 1, put, delete);
+                }
+            }
+            this.sequence = Math.max(covered, logs.isEmpty() ? -1 : logs.get(logs.size() - 1)) + 1;
+            this.channel = openLog(sequence);
+            this.source = values;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+        if (options.sync() == SyncPolicy.INTERVAL || options.snapshotBytes() > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "quartz-wal-" + entityClass.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (options.sync() == SyncPolicy.INTERVAL) {
+                long interval = options.syncInterval().toNanos();
+                scheduler.scheduleWithFixedDelay(() -> background(this::sync), interval, interval, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (snapshotDue()) {
+            scheduleSnapshot();
+        }
+    }
+
+    public void commit(Consumer<? super Batch<E, ID>> changes) {
+        long position;
+        boolean snapshotDue;
+        appendLock.lock();
+        try {
+            if (closed || channel == null) {
+                throw new IllegalStateException("Write-ahead log for " + name + " is not open");
+            }
+            recorder.clear();
+            try {
+                changes.accept(recorder);
+            } finally {
+                if (recorder.size() > 0) {
+                    int bytes = recorder.size();
+                    try {
+                        recorder.writeTo(channel);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    written += bytes;
+                    logBytes += bytes;
+                }
+            }
+            position = written;
+            snapshotDue = snapshotDue();
+        } finally {
+            appendLock.unlock();
+        }
+        if (options.sync() == SyncPolicy.ALWAYS) {
+            awaitDurable(position);
+        }
+        if (snapshotDue) {
+            scheduleSnapshot();
+        }
+    }
+
+    public void sync() {
+        long position;
+        appendLock.lock();
+        try {
+            position = written;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(position);
+    }
+
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            if (closed || source == null) {
+                throw new IllegalStateException("Write-ahead log for " + name + " is not open");
+            }
+            long covers = rotate();
+            Path temporary = options.directory().resolve(name + ".snapshot.tmp");
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER).putInt(MAGIC).putInt(FORMAT).putLong(covers).flip();
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                Records records = new Records(FLUSH_THRESHOLD);
+                for (E entity : source) {
+                    records.put(entity);
+                    if (records.size() >= FLUSH_THRESHOLD) {
+                        records.writeTo(out);
+                        records.clear();
+                    }
+                }
+                records.writeTo(out);
+                out.force(true);
+            }
+            Files.move(temporary, snapshotPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (long logSequence : logSequences()) {
+                if (logSequence <= covers) {
+                    Files.deleteIfExists(logPath(logSequence));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            snapshotPending.set(false);
+            snapshotLock.unlock();
+        }
+    }
+
+    public long getSyncCount() {
+        return syncs.sum();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (syncMonitor) {
+            appendLock.lock();
+            try {
+                if (closed || channel == null) return;
+                closed = true;
+                channel.force(true);
+                channel.close();
+                synced = written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    private void awaitDurable(long position) {
+        if (synced >= position) {
+            return;
+        }
+        synchronized (syncMonitor) {
+            if (synced >= position || closed) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            appendLock.lock();
+            try {
+                target = written;
+                current = channel;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            syncs.increment();
+            synced = target;
+        }
+    }
+
+    private long rotate() throws IOException {
+        synchronized (syncMonitor) {
+            appendLock.lock();
+            try {
+                channel.force(false);
+                channel.close();
+                synced = written;
+                long covers = sequence;
+                channel = openLog(++sequence);
+                logBytes = 0;
+                return covers;
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    private boolean snapshotDue() {
+        return options.snapshotBytes() > 0 && logBytes >= options.snapshotBytes();
+    }
+
+    private void scheduleSnapshot() {
+        if (closed || scheduler == null || !snapshotPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> background(this::snapshot));
+        } catch (RejectedExecutionException e) {
+            snapshotPending.set(false);
+        }
+    }
+
+    private void background(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            if (!closed) {
+                log.warn("Write-ahead log task failed for {}", name, e);
+            }
+        }
+    }
+
+    private long replaySnapshot(Path snapshot, BiConsumer<ID, E> put) throws IOException {
+        try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER);
+            while (header.hasRemaining()) {
+                if (in.read(header) < 0) break;
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT) {
+                throw new IllegalStateException(snapshot + " is not a snapshot of format " + FORMAT);
+            }
+            long end = replay(in, SNAPSHOT_HEADER, put, id -> { });
+            if (end != in.size()) {
+                throw new IllegalStateException("Snapshot " + snapshot + " is corrupt at offset " + end);
+            }
+            return header.getLong(8);
+        }
+    }
+
+    private long replayLog(Path path, boolean last, BiConsumer<ID, E> put, Consumer<ID> delete) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = replay(in, 0, put, delete);
+            if (end != in.size()) {
+                if (!last) {
+                    throw new IllegalStateException("Write-ahead log " + path + " is corrupt at offset " + end);
+                }
+                log.warn("Discarding {} bytes of incomplete records at the end of {}", in.size() - end, path);
+                in.truncate(end);
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Streams the records from {@code position} through a heap buffer that grows to
+     * fit the largest record, so files of any size replay with long offsets.
+     * Returns the offset just past the last intact record.
+     */
+    private long replay(FileChannel in, long position, BiConsumer<ID, E> put, Consumer<ID> delete) throws IOException {
+        CRC32C crc = new CRC32C();
+        long size = in.size();
+        long offset = position;
+        in.position(position);
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER).flip();
+        while (size - offset >= RECORD_HEADER + 1) {
+            buffer = fill(in, buffer, RECORD_HEADER + 1);
+            int length = buffer.getInt(buffer.position());
+            if (length <= 0 || length > size - offset - RECORD_HEADER) {
+                break;
+            }
+            buffer = fill(in, buffer, RECORD_HEADER + length);
+            if (buffer.remaining() < RECORD_HEADER + length) {
+                break;
+            }
+            int start = buffer.position();
+            crc.reset();
+            crc.update(buffer.slice(start + RECORD_HEADER, length));
+            if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(start + RECORD_HEADER + 1, length - 1);
+            if (buffer.get(start + RECORD_HEADER) == PUT) {
+                E entity = codec.decode(payload);
+                put.accept(IdentityUtil.extractId(entity, idClass), entity);
+            } else {
+                delete.accept(IdKeys.decode(payload, idClass));
+            }
+            recoveredRecords++;
+            buffer.position(start + RECORD_HEADER + length);
+            offset += RECORD_HEADER + length;
+        }
+        return offset;
+    }
+
+    private static ByteBuffer fill(FileChannel in, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        if (buffer.capacity() < needed) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+            bigger.put(buffer);
+            buffer = bigger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < needed) {
+            if (in.read(buffer) < 0) break;
+        }
+        return buffer.flip();
+    }
+
+    private List<Long> logSequences() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(options.directory(), name + ".*.wal")) {
+            for (Path path : logs) {
+                String file = path.getFileName().toString();
+                try {
+                    sequences.add(Long.parseLong(file.substring(name.length() + 1, file.length() - ".wal".length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private FileChannel openLog(long sequence) throws IOException {
+        return FileChannel.open(logPath(sequence), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path logPath(long sequence) {
+        return options.directory().resolve(name + "." + sequence + ".wal");
+    }
+
+    private Path snapshotPath() {
+        return options.directory().resolve(name + ".snapshot");
+    }
+
+    public interface Batch<E, ID> {
+
+        Batch<?, ?> NONE = new Batch<>() {
+            @Override
+            public void put(Object id, Object entity) {
+            }
+
+            @Override
+            public void delete(Object id) {
+            }
+        };
+
+        void put(ID id, E entity);
+
+        void delete(ID id);
+
+        @SuppressWarnings("unchecked")
+        static <E, ID> Batch<E, ID> none() {
+            return (Batch<E, ID>) NONE;
+        }
+    }
+
+    private final class Recorder implements Batch<E, ID> {
+
+        private final Records records = new Records(4096);
+
+        @Override
+        public void put(ID id, E entity) {
+            records.put(entity);
+        }
+
+        @Override
+        public void delete(ID id) {
+            records.delete(IdKeys.encode(id));
+        }
+
+        private int size() {
+            return records.size();
+        }
+
+        private void clear() {
+            records.clear();
+        }
+
+        private void writeTo(FileChannel channel) throws IOException {
+            records.writeTo(channel);
+        }
+    }
+
+    private final class Records {
+
+        private final CRC32C crc = new CRC32C();
+
+        private ByteBuffer buffer;
+
+        private Records(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+
+        private void put(E entity) {
+            int start = buffer.position();
+            while (true) {
+                try {
+                    buffer.position(start + RECORD_HEADER);
+                    buffer.put(PUT);
+                    codec.encode(entity, buffer);
+                    break;
+                } catch (BufferOverflowException e) {
+                    grow(start, 0);
+                } catch (RuntimeException e) {
+                    buffer.position(start);
+                    throw e;
+                }
+            }
+            seal(start);
+        }
+
+        private void delete(byte[] key) {
+            int start = buffer.position();
+            if (buffer.remaining() < RECORD_HEADER + 1 + key.length) {
+                grow(start, RECORD_HEADER + 1 + key.length);
+            }
+            buffer.position(start + RECORD_HEADER);
+            buffer.put(DELETE).put(key);
+            seal(start);
+        }
+
+        private void seal(int start) {
+            int length = buffer.position() - start - RECORD_HEADER;
+            crc.reset();
+            crc.update(buffer.array(), start + RECORD_HEADER, length);
+            buffer.putInt(start, length).putInt(start + Integer.BYTES, (int) crc.getValue());
+        }
+
+        private void grow(int keep, int needed) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, keep + needed));
+            bigger.put(buffer.array(), 0, keep);
+            buffer = bigger;
+        }
+
+        private int size() {
+            return buffer.position();
+        }
+
+        private void clear() {
+            buffer.clear();
+        }
+
+        private void writeTo(FileChannel channel) throws IOException {
+            ByteBuffer out = buffer.duplicate().flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package xyz.quartzframework.data.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import xyz.quartzframework.data.entity.Attribute;
+import xyz.quartzframework.data.entity.AttributeAccessor;
+import xyz.quartzframework.data.entity.AttributeWriter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@UtilityClass
+public class AttributeAccessorUtil {
+
+    private final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final ClassValue<Map<String, AttributeAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, AttributeAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public AttributeAccessor resolve(Class<?> rootClass, String path) {
+        val accessors = ACCESSORS.get(rootClass);
+        val accessor = accessors.get(path);
+        if (accessor != null) {
+            return accessor;
+        }
+        return accessors.computeIfAbsent(path, p -> compile(rootClass, p.split("\\.")));
+    }
+
+    public Object getValue(Object root, String path) {
+        return resolve(root.getClass(), path).get(root);
+    }
+
+    public AttributeWriter resolveWriter(Class<?> rootClass, String path) {
+        int split = path.lastIndexOf('.');
+        String parentPath = split < 0 ? null : path.substring(0, split);
+        try {
+            Class<?> owner = parentPath == null ? rootClass : resolveType(rootClass, parentPath);
+            Field field = findField(owner, path.substring(split + 1));
+            Class<?> type = MethodType.methodType(field.getType()).wrap().returnType();
+            MethodHandle setter = setter(field);
+            AttributeAccessor parent = parentPath == null ? null : resolve(rootClass, parentPath);
+            return (entity, value) -> {
+                Object target = parent == null ? entity : parent.get(entity);
+                if (target == null) {
+                    throw new IllegalStateException("Cannot set '" + path + "' through a null reference");
+                }
+                try {
+                    setter.invokeExact(target, coerce(value, type));
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Failed to write attribute " + path, e);
+                }
+            };
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    public Object coerce(Object value, Class<?> type) {
+        if (!(value instanceof Number number) || type.isInstance(value)) {
+            return value;
+        }
+        boolean integral = number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+        if (type == Double.class) return number.doubleValue();
+        if (type == Float.class) return number.floatValue();
+        if (!integral) return value;
+        long l = number.longValue();
+        if (type == Long.class) return l;
+        if (type == Integer.class && l == (int) l) return (int) l;
+        if (type == Short.class && l == (short) l) return (short) l;
+        if (type == Byte.class && l == (byte) l) return (byte) l;
+        return value;
+    }
+
+    public Class<?> resolveType(Class<?> rootClass, String path) throws NoSuchFieldException {
+        Class<?> current = rootClass;
+        for (String part : path.split("\\.")) {
+            current = findField(current, part).getType();
+        }
+        return current;
+    }
+
+    public Field findField(Class<?> clazz, String name) throws NoSuchFieldException {
+        while (clazz != null) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.getName().equals(name)) return field;
+                val alias = field.getAnnotation(Attribute.class);
+                if (alias != null && alias.value().equals(name)) return field;
+            }
+            clazz = clazz.getSuperclass();
+        }
+        throw new NoSuchFieldException("Field or @Attribute '" + name + "' not found");
+    }
+
+    private AttributeAccessor compile(Class<?> rootClass, String[] parts) {
+        MethodHandle[] getters = new MethodHandle[parts.length];
+        Class<?> current = rootClass;
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                Field field = findField(current, parts[i]);
+                getters[i] = getter(field);
+                current = field.getType();
+            } catch (NoSuchFieldException e) {
+                if (i == 0) {
+                    return entity -> {
+                        throw new IllegalArgumentException(e.getMessage(), e);
+                    };
+                }
+                return chain(getters, i, String.join(".", Arrays.copyOfRange(parts, i, parts.length)));
+            }
+        }
+        return chain(getters, parts.length, null);
+    }
+
+    private AttributeAccessor chain(MethodHandle[] getters, int resolved, String remainder) {
+        if (remainder == null && resolved == 1) {
+            MethodHandle getter = getters[0];
+            return entity -> {
+                if (entity == null) return null;
+                return invoke(getter, entity);
+            };
+        }
+        return entity -> {
+            Object current = entity;
+            for (int i = 0; i < resolved; i++) {
+                if (current == null) return null;
+                current = invoke(getters[i], current);
+            }
+            if (remainder == null || current == null) {
+                return current;
+            }
+            return resolve(current.getClass(), remainder).get(current);
+        };
+    }
+
+    private MethodHandle getter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access attribute " + field.getDeclaringClass().getName() + "." + field.getName(), e);
+        }
+    }
+
+    private MethodHandle setter(Field field) {
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot write attribute " + field.getDeclaringClass().getName() + "." + field.getName(), e);
+        }
+    }
+
+    private Object invoke(MethodHandle getter, Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to read attribute", e);
+        }
+    }
+}
\ No newline at end of file
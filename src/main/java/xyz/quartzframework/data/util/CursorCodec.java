@@ -0,0 +1,169 @@
+package xyz.quartzframework.data.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+@UtilityClass
+public class CursorCodec {
+
+    private final byte VERSION = 2;
+
+    private final byte NULL = 0;
+
+    private final byte BOOLEAN = 1;
+
+    private final byte INTEGRAL = 2;
+
+    private final byte DECIMAL = 3;
+
+    private final byte TEXT = 4;
+
+    private final byte UUID_VALUE = 5;
+
+    private final byte INSTANT = 6;
+
+    /**
+     * Encodes the keys of the last row on a page together with the number of rows returned so far,
+     * so a limited query can stop issuing cursors once the limit is reached across pages.
+     */
+    public String encode(int fingerprint, long returned, List<?> values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24 + values.size() * 9);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(fingerprint);
+            out.writeLong(returned);
+            out.writeByte(values.size());
+            for (Object value : values) {
+                write(out, value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public Position decode(String cursor, int fingerprint, List<Class<?>> types) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            if (in.readInt() != fingerprint) {
+                throw new IllegalArgumentException("Cursor was issued for a different ordering");
+            }
+            long returned = in.readLong();
+            if (returned < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            int count = in.readUnsignedByte();
+            if (count != types.size()) {
+                throw new IllegalArgumentException("Cursor does not match the requested ordering");
+            }
+            List<Object> values = new ArrayList<>(count);
+            for (Class<?> type : types) {
+                values.add(read(in, MethodType.methodType(type).wrap().returnType()));
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new Position(returned, values);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public record Position(long returned, List<Object> keys) { }
+
+    private void write(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(INTEGRAL);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DECIMAL);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(UUID_VALUE);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Instant instant) {
+            out.writeByte(INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (value instanceof Enum<?> constant) {
+            out.writeByte(TEXT);
+            out.writeUTF(constant.name());
+        } else if (value instanceof CharSequence || value instanceof Character || value instanceof BigDecimal
+                || value instanceof BigInteger || value instanceof TemporalAccessor) {
+            out.writeByte(TEXT);
+            out.writeUTF(value.toString());
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor key type: " + value.getClass().getName());
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object read(DataInputStream in, Class<?> type) throws IOException {
+        byte tag = in.readByte();
+        Object value = switch (tag) {
+            case NULL -> null;
+            case BOOLEAN -> in.readBoolean();
+            case INTEGRAL -> AttributeAccessorUtil.coerce(in.readLong(), type);
+            case DECIMAL -> AttributeAccessorUtil.coerce(in.readDouble(), type);
+            case UUID_VALUE -> new UUID(in.readLong(), in.readLong());
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case TEXT -> {
+                String text = in.readUTF();
+                if (type == String.class || type == Object.class) yield text;
+                if (type.isEnum()) yield Enum.valueOf((Class) type, text);
+                if (type == Character.class && text.length() == 1) yield text.charAt(0);
+                if (type == BigDecimal.class) yield new BigDecimal(text);
+                if (type == BigInteger.class) yield new BigInteger(text);
+                yield parse(type, text);
+            }
+            default -> throw new IllegalArgumentException("Malformed cursor");
+        };
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Cursor value " + value + " does not match key type " + type.getName());
+        }
+        return value;
+    }
+
+    private Object parse(Class<?> type, String text) {
+        try {
+            Method parse = type.getMethod("parse", CharSequence.class);
+            if (!Modifier.isStatic(parse.getModifiers()) || !TemporalAccessor.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("Unsupported cursor key type: " + type.getName());
+            }
+            return parse.invoke(null, text);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unsupported cursor key type: " + type.getName(), e);
+        }
+    }
+}
\ No newline at end of file
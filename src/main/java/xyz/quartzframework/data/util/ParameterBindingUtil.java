@@ -5,7 +5,9 @@ import xyz.quartzframework.data.query.*;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @UtilityClass
@@ -20,7 +22,9 @@ public final class ParameterBindingUtil {
             }
         }
 
-        for (QuerySubstitution substitution : definition.querySubstitutions()) {
+        List<QuerySubstitution> substitutions = new ArrayList<>(definition.querySubstitutions());
+        definition.assignments().forEach(assignment -> substitutions.add(assignment.value()));
+        for (QuerySubstitution substitution : substitutions) {
             if (substitution.isNamed()) {
                 String name = substitution.getNameOrIndex();
                 if (!declared.contains(name)) {
@@ -30,6 +34,20 @@ public final class ParameterBindingUtil {
         }
     }
 
+    public QuerySubstitution bindNamedParameter(Method method, QuerySubstitution substitution) {
+        if (!substitution.isNamed() || substitution.isBound()) {
+            return substitution;
+        }
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            QueryParameter qp = parameters[i].getAnnotation(QueryParameter.class);
+            if (qp != null && qp.value().equals(substitution.getNameOrIndex())) {
+                return substitution.bindTo(i);
+            }
+        }
+        return substitution;
+    }
+
     public Object findNamedParameter(Method method, String name, Object[] args) {
         Parameter[] parameters = method.getParameters();
         for (int i = 0; i < parameters.length; i++) {
@@ -4,8 +4,12 @@ import lombok.experimental.UtilityClass;
 import lombok.val;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.metrics.SlowQueryLog;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
 import xyz.quartzframework.data.query.QueryExecutor;
 import xyz.quartzframework.data.query.QueryParser;
+import xyz.quartzframework.data.storage.QueryCacheInterceptor;
 import xyz.quartzframework.data.storage.SimpleStorage;
 import xyz.quartzframework.data.storage.StorageMethodInterceptor;
 
@@ -21,6 +25,10 @@ public class ProxyFactoryUtil {
                                 MethodInterceptor... interceptors) {
         ProxyFactory factory = new ProxyFactory();
         factory.setInterfaces(storageInterface, SimpleStorage.class);
+        val cache = QueryCacheInterceptor.forStorage(storageInterface, executor instanceof InMemoryQueryExecutor<E> memory ? memory.getStorage() : null);
+        if (cache != null) {
+            factory.addAdvice(cache);
+        }
         factory.addAdvice(new StorageMethodInterceptor<>(queryParser, executor, entityType, idType));
         for (MethodInterceptor interceptor : interceptors) {
             factory.addAdvice(interceptor);
@@ -34,10 +42,24 @@ public class ProxyFactoryUtil {
                                                    Class<? extends SimpleStorage<E, ID>> storageInterface,
                                                    QueryExecutor<E> executor,
                                                    MethodInterceptor... interceptors) {
+        return createProxyFactory(queryParser, target, entityType, storageInterface, executor, null, interceptors);
+    }
+
+    public <E, ID> ProxyFactory createProxyFactory(QueryParser queryParser,
+                                                   SimpleStorage<E, ID> target,
+                                                   Class<E> entityType,
+                                                   Class<? extends SimpleStorage<E, ID>> storageInterface,
+                                                   QueryExecutor<E> executor,
+                                                   @Nullable SlowQueryLog slowQueryLog,
+                                                   MethodInterceptor... interceptors) {
         val proxyFactory = new ProxyFactory();
         proxyFactory.setInterfaces(storageInterface);
         proxyFactory.setTarget(target);
-        proxyFactory.addAdvice(new StorageMethodInterceptor<>(queryParser, executor, entityType, target.getIdClass()));
+        val cache = QueryCacheInterceptor.forStorage(storageInterface, target);
+        if (cache != null) {
+            proxyFactory.addAdvice(cache);
+        }
+        proxyFactory.addAdvice(new StorageMethodInterceptor<>(queryParser, executor, entityType, target.getIdClass(), slowQueryLog));
         for (MethodInterceptor interceptor : interceptors) {
             proxyFactory.addAdvice(interceptor);
         }
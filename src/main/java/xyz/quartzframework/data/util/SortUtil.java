@@ -1,38 +1,37 @@
 package xyz.quartzframework.data.util;
 
 import lombok.experimental.UtilityClass;
+import xyz.quartzframework.data.entity.AttributeAccessor;
 import xyz.quartzframework.data.page.Sort;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
 
 @UtilityClass
 public class SortUtil {
 
-    @SuppressWarnings("unchecked")
     public <T> void sortList(List<T> list, Sort sort) {
-        if (!sort.isSorted()) return;
+        if (!sort.isSorted() || list.isEmpty()) return;
+        list.sort(comparator(list.get(0).getClass(), sort));
+    }
 
+    @SuppressWarnings("unchecked")
+    public <T> Comparator<T> comparator(Class<?> type, Sort sort) {
         Comparator<T> combined = null;
-
         for (Sort.Order order : sort.getOrders()) {
+            AttributeAccessor accessor = AttributeAccessorUtil.resolve(type, order.property());
             Comparator<T> comparator = (t1, t2) -> {
-                try {
-                    Field field = t1.getClass().getDeclaredField(order.property());
-                    field.setAccessible(true);
+                Comparable<Object> v1 = (Comparable<Object>) accessor.get(t1);
+                Comparable<Object> v2 = (Comparable<Object>) accessor.get(t2);
 
-                    Comparable<Object> v1 = (Comparable<Object>) field.get(t1);
-                    Comparable<Object> v2 = (Comparable<Object>) field.get(t2);
+                if (v1 == null && v2 == null) return 0;
+                if (v1 == null) return -1;
+                if (v2 == null) return 1;
 
-                    if (v1 == null && v2 == null) return 0;
-                    if (v1 == null) return -1;
-                    if (v2 == null) return 1;
-
-                    return v1.compareTo(v2);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to sort by property: " + order.property(), e);
-                }
+                return v1.compareTo(v2);
             };
 
             if (order.direction() == Sort.Direction.DESC) {
@@ -41,6 +40,60 @@ public class SortUtil {
 
             combined = (combined == null) ? comparator : combined.thenComparing(comparator);
         }
-        list.sort(combined);
+        return combined == null ? (t1, t2) -> 0 : combined;
+    }
+
+    public <T> Collector<T, ?, List<T>> top(Comparator<? super T> comparator, int k) {
+        return Collector.of(() -> new TopK<T>(comparator, k), TopK::add, TopK::merge, TopK::toList);
     }
+
+    private static final class TopK<T> {
+
+        private final Comparator<Ranked<T>> ranking;
+
+        private final PriorityQueue<Ranked<T>> heap;
+
+        private final int k;
+
+        private long seen;
+
+        private TopK(Comparator<? super T> comparator, int k) {
+            this.ranking = Comparator.<Ranked<T>, T>comparing(Ranked::value, comparator).thenComparingLong(Ranked::sequence);
+            this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, ranking.reversed());
+            this.k = k;
+        }
+
+        private void add(T value) {
+            offer(new Ranked<>(value, seen++));
+        }
+
+        private void offer(Ranked<T> ranked) {
+            if (heap.size() < k) {
+                heap.add(ranked);
+            } else if (k > 0 && ranking.compare(ranked, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        }
+
+        private TopK<T> merge(TopK<T> right) {
+            for (Ranked<T> ranked : right.heap) {
+                offer(new Ranked<>(ranked.value(), seen + ranked.sequence()));
+            }
+            seen += right.seen;
+            return this;
+        }
+
+        private List<T> toList() {
+            List<Ranked<T>> ranked = new ArrayList<>(heap);
+            ranked.sort(ranking);
+            List<T> result = new ArrayList<>(ranked.size());
+            for (Ranked<T> entry : ranked) {
+                result.add(entry.value());
+            }
+            return result;
+        }
+    }
+
+    private record Ranked<T>(T value, long sequence) { }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package xyz.quartzframework.data;
+
+import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.query.Cached;
+import xyz.quartzframework.data.storage.InMemoryStorage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Storage
+@Cached(maximumSize = 2)
+public interface CachedFakeStorage extends InMemoryStorage<FakeEntity, UUID> {
+
+    List<FakeEntity> findByActiveTrue();
+
+    List<FakeEntity> findByName(String name);
+
+    long countByActiveTrue();
+
+    Page<FakeEntity> findByActiveTrue(Pagination pagination);
+
+    List<FakeEntity> findByNameIn(Collection<String> names);
+
+}
\ No newline at end of file
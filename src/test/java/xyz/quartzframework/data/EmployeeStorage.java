@@ -7,6 +7,8 @@ import xyz.quartzframework.data.storage.InMemoryStorage;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Storage
@@ -133,4 +135,22 @@ public interface EmployeeStorage extends InMemoryStorage<Employee, UUID> {
                                @QueryParameter("a2") int a2,
                                @QueryParameter("a3") int a3,
                                @QueryParameter("d3") String d3);
+
+    @Query("sum age where department.name = :dept")
+    long sumAgeInDepartment(@QueryParameter("dept") String dept);
+
+    @Query("avg age group by department.name")
+    Map<String, Double> averageAgeByDepartment();
+
+    @Query("max createdAt where age < :maxAge")
+    Optional<Instant> latestHireYoungerThan(@QueryParameter("maxAge") int maxAge);
+
+    @Query("count group by department.name")
+    Map<String, Long> countByDepartment();
+
+    int sumAgeByDepartmentName(String name);
+
+    double avgAge();
+
+    Optional<Integer> minAgeByName(String name);
 }
\ No newline at end of file
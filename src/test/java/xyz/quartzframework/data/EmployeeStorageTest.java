@@ -9,6 +9,8 @@ import xyz.quartzframework.data.util.ProxyFactoryUtil;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -305,4 +307,36 @@ class EmployeeStorageTest {
                 new InMemoryQueryExecutor<>(employees, Employee.class),
                 Employee.class, UUID.class);
     }
+
+    @Test
+    void testAggregates() {
+        assertEquals(55, storage.sumAgeInDepartment("Engineering"));
+        assertEquals(0, storage.sumAgeInDepartment("Finance"));
+        assertEquals(Map.of("Engineering", 27.5, "People", 37.5), storage.averageAgeByDepartment());
+        assertEquals(Optional.of(Instant.parse("2025-01-01T00:00:01Z")), storage.latestHireYoungerThan(35));
+        assertTrue(storage.latestHireYoungerThan(20).isEmpty());
+        assertEquals(Map.of("Engineering", 2L, "People", 2L), storage.countByDepartment());
+        assertEquals(75, storage.sumAgeByDepartmentName("People"));
+        assertEquals(32.5, storage.avgAge());
+        assertEquals(Optional.of(40), storage.minAgeByName("Charlie"));
+        assertTrue(storage.minAgeByName("Nobody").isEmpty());
+    }
+
+    @Test
+    void testAggregateAttributesContainingBy() {
+        TransferStorage transfers = ProxyFactoryUtil.createProxy(
+                new SimpleQueryParser(),
+                TransferStorage.class,
+                new InMemoryQueryExecutor<>(List.of(
+                        new Transfer(UUID.randomUUID(), "alice", 100, 1, "a"),
+                        new Transfer(UUID.randomUUID(), "alice", 50, 7, "b"),
+                        new Transfer(UUID.randomUUID(), "bob", 10, 3, "a")
+                ), Transfer.class),
+                Transfer.class, UUID.class);
+        assertEquals(150, transfers.sumBytesByOwner("alice"));
+        assertEquals(Optional.of(7L), transfers.maxByteCount());
+        assertEquals(Optional.of(3L), transfers.maxByteCountByOwner("bob"));
+        assertEquals(Map.of("alice", 1L, "bob", 1L), transfers.countByGroupByKeyGroupByOwner("a"));
+        assertEquals(Map.of("a", 100L, "b", 50L), transfers.sumBytesByOwnerGroupByGroupByKey("alice"));
+    }
 }
\ No newline at end of file
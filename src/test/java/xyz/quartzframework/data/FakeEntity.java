@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import xyz.quartzframework.data.entity.Identity;
+import xyz.quartzframework.data.entity.Indexed;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -16,12 +17,15 @@ public class FakeEntity {
     @Identity
     private UUID id;
 
+    @Indexed
     private String name;
 
+    @Indexed(sorted = true)
     private int score;
 
     private boolean active;
 
+    @Indexed(sorted = true)
     private Instant createdAt;
 
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package xyz.quartzframework.data;
 
 import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.metrics.Redacted;
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.CursorRequest;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.query.Parallel;
 import xyz.quartzframework.data.query.Query;
 import xyz.quartzframework.data.query.QueryParameter;
 import xyz.quartzframework.data.storage.InMemoryStorage;
@@ -22,6 +28,8 @@ public interface FakeStorage extends InMemoryStorage<FakeEntity, UUID> {
 
     List<FakeEntity> findByIdIn(Collection<UUID> ids);
 
+    List<FakeEntity> findByScoreIn(Collection<Long> scores);
+
     @Query("find where name like ?1")
     List<FakeEntity> searchByName(String pattern);
 
@@ -38,6 +46,8 @@ public interface FakeStorage extends InMemoryStorage<FakeEntity, UUID> {
 
     long countByActiveTrue();
 
+    long countByName(String name);
+
     List<FakeEntity> findByNameNotLike(String pattern);
 
     List<FakeEntity> findByNameIn(Collection<String> names);
@@ -51,6 +61,22 @@ public interface FakeStorage extends InMemoryStorage<FakeEntity, UUID> {
     @Query("find where score >= ?1 and active = true order by score desc")
     List<FakeEntity> findActivesWithMinScore(int score);
 
+    @Parallel(threshold = 1)
+    @Query("find where score >= ?1 and active = true order by score desc")
+    List<FakeEntity> findActivesWithMinScoreInParallel(int score);
+
+    @Parallel(threshold = 1)
+    @Query("find top 2 where score >= ?1 and active = true order by score desc")
+    List<FakeEntity> findTopActivesInParallel(int score);
+
+    @Parallel(threshold = 1)
+    @Query("count where active = true and score < ?1")
+    long countActiveLowScorersInParallel(int maxScore);
+
+    @Parallel(threshold = 1)
+    @Query("find where active = true and score < ?1")
+    List<FakeEntity> findActiveLowScorersInParallel(int maxScore);
+
     @Query("find where name not like ?1 order by createdAt asc")
     List<FakeEntity> findByNameExclusionPattern(String pattern);
 
@@ -133,4 +159,31 @@ public interface FakeStorage extends InMemoryStorage<FakeEntity, UUID> {
             "returns new xyz.quartzframework.data.FakeEntityDTO(id)")
     Optional<FakeEntityDTO> findRecentLowScorerAsDto(int maxScore);
 
-}
+    long deleteByActiveFalse();
+
+    @Query("delete from FakeEntity where score < ?1")
+    void deleteLowScorers(int maxScore);
+
+    @Query("update set active = :active where name = :name")
+    int updateActiveByName(@QueryParameter("name") String name, @QueryParameter("active") boolean active);
+
+    @Query("update FakeEntity set score = ?2 where name = ?1")
+    long updateScoreByName(String name, int score);
+
+    Page<FakeEntity> findByActiveTrue(Pagination pagination);
+
+    @Query("find where score > ?1 order by active desc")
+    Page<FakeEntity> findScoredAbove(int minScore, Pagination pagination);
+
+    CursorPage<FakeEntity> findByActiveTrue(CursorRequest request);
+
+    @Query("find where score >= ?1")
+    CursorPage<FakeEntity> findScoredFrom(int minScore, CursorRequest request);
+
+    @Query("find top 5 where score >= ?1")
+    CursorPage<FakeEntity> findTopScoredFrom(int minScore, CursorRequest request);
+
+    @Query("find where name = :name")
+    List<FakeEntity> findByConfidentialName(@Redacted @QueryParameter("name") String name);
+
+}
\ No newline at end of file
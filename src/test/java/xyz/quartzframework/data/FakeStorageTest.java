@@ -2,15 +2,35 @@ package xyz.quartzframework.data;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import xyz.quartzframework.data.metrics.ScanTracker;
+import xyz.quartzframework.data.page.CursorPage;
+import xyz.quartzframework.data.page.CursorRequest;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.query.AttributeStatistics;
 import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.Operation;
 import xyz.quartzframework.data.query.ParameterBindingException;
+import xyz.quartzframework.data.query.QueryExplanation;
 import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.storage.QueryCacheInterceptor;
+import xyz.quartzframework.data.storage.StorageDefinition;
+import xyz.quartzframework.data.storage.StorageMethodInterceptor;
+import xyz.quartzframework.data.util.AttributeAccessorUtil;
 import xyz.quartzframework.data.util.ProxyFactoryUtil;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,6 +38,10 @@ class FakeStorageTest {
 
     private FakeStorage storage;
 
+    private HashMapStorage<FakeEntity, UUID> backing;
+
+    private FakeStorage live;
+
     UUID uuid1 = UUID.randomUUID();
     UUID uuid2 = UUID.randomUUID();
 
@@ -32,6 +56,9 @@ class FakeStorageTest {
 
         InMemoryQueryExecutor<FakeEntity> executor = new InMemoryQueryExecutor<>(data, FakeEntity.class);
         storage = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, executor, FakeEntity.class, UUID.class);
+
+        backing = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        live = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, new InMemoryQueryExecutor<>(backing), FakeEntity.class, UUID.class);
     }
 
     @Test
@@ -748,4 +775,370 @@ class FakeStorageTest {
         assertTrue(result.isPresent());
         assertNotNull(result.get().getId());
     }
+
+    @Test
+    void testLiveExecutorSeesLaterSaves() {
+        assertTrue(live.findByName("Alice").isEmpty());
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, Instant.now()));
+        assertEquals(1, live.findByName("Alice").size());
+        backing.deleteById(uuid1);
+        assertFalse(live.existsByName("Alice"));
+    }
+
+    @Test
+    void testIndexedLookupsFollowWrites() {
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, Instant.now()));
+        backing.save(new FakeEntity(uuid2, "Bob", 50, false, Instant.now()));
+        assertEquals(1, live.findByName("Alice").size());
+        assertEquals(2, live.findByNameIn(List.of("Alice", "Bob")).size());
+        assertEquals(1, live.findByNameAndActiveTrue("Alice").size());
+        assertTrue(live.findByNameAndActiveTrue("Bob").isEmpty());
+
+        backing.save(new FakeEntity(uuid1, "Alicia", 90, true, Instant.now()));
+        assertTrue(live.findByName("Alice").isEmpty());
+        assertEquals(1, live.findByName("Alicia").size());
+        assertEquals(0, live.countByName("Alice"));
+        assertEquals(1, live.countByName("Alicia"));
+        assertTrue(live.existsActiveByName("Alicia"));
+
+        backing.deleteById(uuid1);
+        assertTrue(live.findByName("Alicia").isEmpty());
+        assertEquals(1, live.findByNameIn(List.of("Alicia", "Bob")).size());
+    }
+
+    @Test
+    void testSortedIndexServesRangesAndOrdering() {
+        Instant now = Instant.now();
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, now.minusSeconds(30)));
+        backing.save(new FakeEntity(uuid2, "Bob", 50, false, now.minusSeconds(20)));
+        backing.save(new FakeEntity(UUID.randomUUID(), "Carol", 75, true, now.minusSeconds(10)));
+        backing.save(new FakeEntity(UUID.randomUUID(), "Dave", 70, true, now));
+
+        assertEquals(List.of("Alice", "Carol"), live.topScorers(60).stream().map(FakeEntity::getName).toList());
+        assertEquals(2, live.findActivesWithMinScore(75).size());
+        assertEquals(90, live.findActivesWithMinScore(75).get(0).getScore());
+        assertEquals(2, live.findByScoreLessThanAndActiveTrue(90).size());
+        assertEquals(2, live.findByCreatedAtAfter(now.minusSeconds(15)).size());
+        assertEquals("Dave", live.findFirstByActiveTrueOrderByCreatedAtDesc().orElseThrow().getName());
+
+        backing.save(new FakeEntity(uuid2, "Bob", 99, true, now.minusSeconds(20)));
+        assertEquals(List.of("Bob", "Alice"), live.topScorers(60).stream().map(FakeEntity::getName).toList());
+        backing.deleteById(uuid2);
+        assertTrue(live.findByScoreLessThanAndActiveTrue(50).isEmpty());
+    }
+
+    @Test
+    void testTopKMatchesFullSortPrefix() {
+        Random random = new Random(42);
+        List<FakeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            entities.add(new FakeEntity(UUID.randomUUID(), "E" + i, random.nextInt(20), random.nextBoolean(), Instant.now()));
+        }
+        FakeStorage temp = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, new InMemoryQueryExecutor<>(entities, FakeEntity.class), FakeEntity.class, UUID.class);
+        List<FakeEntity> sorted = temp.findActivesWithMinScore(0);
+        assertEquals(sorted.subList(0, 2), temp.findTop2ByActiveTrueOrderByScoreDesc());
+    }
+
+    @Test
+    void testParallelExecutionMatchesSequential() {
+        Random random = new Random(7);
+        List<FakeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            entities.add(new FakeEntity(UUID.randomUUID(), "E" + i, random.nextInt(50), random.nextBoolean(), Instant.now()));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FakeStorage temp = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, new InMemoryQueryExecutor<>(entities, FakeEntity.class, pool), FakeEntity.class, UUID.class);
+            assertEquals(temp.findActivesWithMinScore(10), temp.findActivesWithMinScoreInParallel(10));
+            assertEquals(temp.findActivesWithMinScore(10).subList(0, 2), temp.findTopActivesInParallel(10));
+            assertEquals(temp.countActiveLowScorers(25), temp.countActiveLowScorersInParallel(25));
+
+            long expected = temp.countActiveLowScorers(25);
+            ScanTracker.Scan previous = ScanTracker.begin();
+            assertEquals(expected, temp.findActiveLowScorersInParallel(25).size());
+            ScanTracker.Scan scan = ScanTracker.end(previous);
+            assertEquals(QueryExplanation.AccessPath.FULL_SCAN, scan.accessPath());
+            assertEquals(2000, scan.rows());
+
+            previous = ScanTracker.begin();
+            assertTrue(temp.existsByMinScoreAndActive(0));
+            scan = ScanTracker.end(previous);
+            assertEquals(entities.indexOf(entities.stream().filter(FakeEntity::isActive).findFirst().orElseThrow()) + 1, scan.rows());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testLikeSegmentPatterns() {
+        assertEquals(1, storage.searchByName("A%c%e").size());
+        assertEquals(1, storage.searchByName("%har%").size());
+        assertEquals(2, storage.searchByName("%e").size());
+        assertTrue(storage.searchByName("A%e%c").isEmpty());
+        assertTrue(storage.searchByName("Al%ice%e").isEmpty());
+        assertEquals(3, storage.searchByName("%").size());
+        assertEquals(List.of("Charlie"), storage.searchByNameIgnoreCase("%HAR%").stream().map(FakeEntity::getName).toList());
+        assertEquals(2, storage.searchByNameIgnoreCase("ALI").size() + storage.searchByNameIgnoreCase("bOb").size());
+    }
+
+    @Test
+    void testInArgumentsUseIdentityLookupsAndCoercion() {
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, Instant.now()));
+        backing.save(new FakeEntity(uuid2, "Bob", 50, false, Instant.now()));
+        assertEquals(2, live.findByIdIn(List.of(uuid1, uuid2, UUID.randomUUID())).size());
+        assertEquals(1, live.findByIdIn(Arrays.asList(uuid2, null)).size());
+        assertEquals(List.of("Alice"), live.findByScoreIn(List.of(90L, 10L)).stream().map(FakeEntity::getName).toList());
+        assertEquals(2, storage.findByScoreIn(List.of(90L, 50L)).size());
+    }
+
+    @Test
+    void testAttributeStatisticsEstimateSelectivity() {
+        List<FakeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            entities.add(new FakeEntity(UUID.randomUUID(), i % 10 == 0 ? null : "E" + (i % 4), i % 100, i % 2 == 0, Instant.now()));
+        }
+        AttributeStatistics score = AttributeStatistics.sample(entities, AttributeAccessorUtil.resolve(FakeEntity.class, "score"), 256);
+        assertEquals(0.5, score.selectivity(Operation.GREATER_THAN_OR_EQUAL, 50), 0.1);
+        assertEquals(0.01, score.selectivity(Operation.EQUAL, 42), 0.02);
+        AttributeStatistics name = AttributeStatistics.sample(entities, AttributeAccessorUtil.resolve(FakeEntity.class, "name"), 256);
+        assertEquals(0.1, name.selectivity(Operation.IS_NULL, null), 0.05);
+        assertEquals(4, name.distinctValues());
+    }
+
+    @Test
+    void testCachedPlansStayCorrectAcrossArgumentsAndDataChanges() {
+        List<FakeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            FakeEntity entity = new FakeEntity(UUID.randomUUID(), "E" + (i % 5), i % 100, i % 3 == 0, Instant.now());
+            entities.add(entity);
+            backing.save(entity);
+        }
+        for (int max : new int[]{1, 50, 100, 1, 99}) {
+            long expected = entities.stream().filter(e -> e.getScore() < max && e.isActive()).count();
+            assertEquals(expected, live.findByScoreLessThanAndActiveTrue(max).size());
+        }
+        for (int i = 0; i < 500; i++) {
+            FakeEntity entity = new FakeEntity(UUID.randomUUID(), "E9", 5, true, Instant.now());
+            entities.add(entity);
+            backing.save(entity);
+        }
+        long expected = entities.stream().filter(e -> e.getScore() < 10 && e.isActive()).count();
+        assertEquals(expected, live.findByScoreLessThanAndActiveTrue(10).size());
+        assertEquals(entities.stream().filter(e -> e.getName().equals("E9") && e.isActive()).count(), live.findByNameAndActiveTrue("E9").size());
+    }
+
+    @Test
+    void testCachedQueriesInvalidateOnWrites() {
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, Instant.now()));
+        CachedFakeStorage cached = (CachedFakeStorage) ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), backing, FakeEntity.class, CachedFakeStorage.class, new InMemoryQueryExecutor<>(backing)).getProxy();
+
+        List<FakeEntity> first = cached.findByActiveTrue();
+        assertSame(first, cached.findByActiveTrue());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(first.get(0)));
+
+        cached.save(new FakeEntity(uuid2, "Bob", 50, true, Instant.now()));
+        assertEquals(2, cached.findByActiveTrue().size());
+        assertEquals(2, cached.countByActiveTrue());
+
+        backing.deleteById(uuid2);
+        assertEquals(1, cached.findByActiveTrue().size());
+        assertEquals(1, cached.findByName("Alice").size());
+        assertTrue(cached.findByName("Bob").isEmpty());
+
+        CachedFakeStorage detached = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), CachedFakeStorage.class, new InMemoryQueryExecutor<>(backing), FakeEntity.class, UUID.class);
+        assertEquals(1, detached.findByActiveTrue().size());
+        backing.save(new FakeEntity(uuid2, "Bob", 50, true, Instant.now()));
+        assertEquals(2, detached.findByActiveTrue().size());
+    }
+
+    @Test
+    void testQueryCacheEvictsLeastRecentlyReadEntries() {
+        QueryCacheInterceptor cache = QueryCacheInterceptor.forStorage(CachedFakeStorage.class, backing);
+        ProxyFactory factory = new ProxyFactory();
+        factory.setInterfaces(CachedFakeStorage.class);
+        factory.addAdvice(cache);
+        factory.addAdvice(new StorageMethodInterceptor<>(new SimpleQueryParser(), new InMemoryQueryExecutor<>(backing), FakeEntity.class, UUID.class));
+        CachedFakeStorage bounded = (CachedFakeStorage) factory.getProxy();
+
+        bounded.findByName("A");
+        bounded.findByName("B");
+        bounded.findByName("A");
+        assertEquals(1, cache.getHits());
+        bounded.findByName("C");
+        assertEquals(2, cache.size());
+        bounded.findByName("A");
+        assertEquals(2, cache.getHits());
+        bounded.findByName("B");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void testCachedResultsAndKeysAreDetachedFromCallers() {
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, Instant.now()));
+        backing.save(new FakeEntity(uuid2, "Bob", 50, true, Instant.now()));
+        QueryCacheInterceptor cache = QueryCacheInterceptor.forStorage(CachedFakeStorage.class, backing);
+        ProxyFactory factory = new ProxyFactory();
+        factory.setInterfaces(CachedFakeStorage.class);
+        factory.addAdvice(cache);
+        factory.addAdvice(new StorageMethodInterceptor<>(new SimpleQueryParser(), new InMemoryQueryExecutor<>(backing), FakeEntity.class, UUID.class));
+        CachedFakeStorage cached = (CachedFakeStorage) factory.getProxy();
+
+        List<String> names = new ArrayList<>(List.of("Alice"));
+        assertEquals(1, cached.findByNameIn(names).size());
+        names.add("Bob");
+        assertEquals(1, cached.findByNameIn(List.of("Alice")).size());
+        assertEquals(1, cache.getHits());
+
+        Page<FakeEntity> page = cached.findByActiveTrue(Pagination.of(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> page.content().clear());
+        assertSame(page, cached.findByActiveTrue(Pagination.of(0, 1)));
+        assertEquals(1, page.content().size());
+    }
+
+    @Test
+    void testModifyingQueriesRejectUnconstrainedDeletes() {
+        FakeEntity alice = new FakeEntity(uuid1, "Alice", 90, true, Instant.now());
+        backing.save(alice);
+        backing.save(new FakeEntity(uuid2, "Bob", 50, false, Instant.now()));
+        UnsafeDeleteStorage unsafe = (UnsafeDeleteStorage) ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), backing, FakeEntity.class, UnsafeDeleteStorage.class, new InMemoryQueryExecutor<>(backing)).getProxy();
+
+        assertThrows(IllegalArgumentException.class, unsafe::deleteBy);
+        assertThrows(ParameterBindingException.class, () -> unsafe.deleteByName("Bob", 1));
+        assertThrows(ParameterBindingException.class, () -> unsafe.deleteLowScorers(100, "cleanup"));
+        assertEquals(2, backing.count());
+
+        assertEquals(0, unsafe.deleteByActiveTrueAndName("Bob"));
+        assertEquals(1, unsafe.renameToLiteral("Bob"));
+        assertEquals("a, b = c", backing.findById(uuid2).orElseThrow().getName());
+        unsafe.delete(alice);
+        assertEquals(List.of(uuid2), backing.findAll().stream().map(FakeEntity::getId).toList());
+    }
+
+    @Test
+    void testBulkDeleteAndUpdateByQuery() {
+        backing.save(new FakeEntity(uuid1, "Alice", 90, true, Instant.now()));
+        backing.save(new FakeEntity(uuid2, "Bob", 50, false, Instant.now()));
+        backing.save(new FakeEntity(UUID.randomUUID(), "Charlie", 70, false, Instant.now()));
+        backing.save(new FakeEntity(UUID.randomUUID(), "Dave", 10, true, Instant.now()));
+
+        assertEquals(1, live.updateActiveByName("Bob", true));
+        assertTrue(live.findByName("Bob").get(0).isActive());
+        assertEquals(2, live.updateScoreByName("Charlie", 95) + live.updateScoreByName("Dave", 20));
+        assertEquals(List.of("Charlie", "Alice"), live.findByScoreGreaterThan(80).stream()
+                .sorted(Comparator.comparingInt(FakeEntity::getScore).reversed()).map(FakeEntity::getName).toList());
+        assertEquals(0, live.updateScoreByName("Nobody", 1));
+
+        assertEquals(1, live.deleteByActiveFalse());
+        assertTrue(live.findByName("Charlie").isEmpty());
+        live.deleteLowScorers(60);
+        assertEquals(1, backing.count());
+        assertTrue(live.findByScoreGreaterThan(0).stream().allMatch(e -> e.getName().equals("Alice")));
+
+        assertThrows(UnsupportedOperationException.class, () -> storage.deleteByActiveFalse());
+    }
+
+    @Test
+    void testPaginationHonorsSortAndCountsTotals() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 50; i++) {
+            backing.save(new FakeEntity(UUID.randomUUID(), "E" + i, i, i % 2 == 0, now.plusSeconds(i)));
+        }
+
+        Page<FakeEntity> page = live.findByActiveTrue(Pagination.of(1, 10, Sort.by("score", Sort.Direction.DESC)));
+        assertEquals(25, page.totalElements());
+        assertEquals(3, page.totalPages());
+        assertEquals(List.of(28, 26, 24, 22, 20, 18, 16, 14, 12, 10), page.stream().map(FakeEntity::getScore).toList());
+        assertEquals(List.of(8, 6, 4, 2, 0), live.findByActiveTrue(Pagination.of(2, 10, Sort.by("score", Sort.Direction.DESC)))
+                .stream().map(FakeEntity::getScore).toList());
+
+        Page<FakeEntity> merged = live.findScoredAbove(39, Pagination.of(0, 4, Sort.by("createdAt", Sort.Direction.ASC)));
+        assertEquals(10, merged.totalElements());
+        assertEquals(List.of(40, 42, 44, 46), merged.stream().map(FakeEntity::getScore).toList());
+
+        Page<FakeEntity> all = backing.findAll(Pagination.of(4, 10, Sort.by("name", Sort.Direction.ASC)));
+        assertEquals(50, all.totalElements());
+        assertEquals(List.of("E5", "E6", "E7", "E8", "E9"), all.stream().map(FakeEntity::getName).skip(5).toList());
+        assertEquals(10, all.content().size());
+    }
+
+    @Test
+    void testKeysetPaginationWalksOrderedIndexes() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 30; i++) {
+            backing.save(new FakeEntity(UUID.randomUUID(), "E" + i, i / 3, true, i % 7 == 0 ? null : now.plusSeconds(i % 5)));
+        }
+        Comparator<FakeEntity> byId = Comparator.comparing(FakeEntity::getId);
+        Comparator<FakeEntity> byScore = Comparator.comparingInt(FakeEntity::getScore).reversed().thenComparing(byId);
+        Comparator<FakeEntity> byCreated = Comparator.comparing(FakeEntity::getCreatedAt, Comparator.nullsLast(Comparator.<Instant>reverseOrder())).thenComparing(byId);
+
+        List<UUID> walked = new ArrayList<>();
+        CursorPage<FakeEntity> page = live.findScoredFrom(2, CursorRequest.first(4, Sort.by("score", Sort.Direction.DESC)));
+        page.stream().map(FakeEntity::getId).forEach(walked::add);
+        String scoreCursor = page.nextCursor();
+        backing.save(new FakeEntity(UUID.randomUUID(), "Late", 9, true, now));
+        while (page.hasNext()) {
+            page = live.findScoredFrom(2, page.next().orElseThrow());
+            assertTrue(page.content().size() <= 4);
+            page.stream().map(FakeEntity::getId).forEach(walked::add);
+        }
+        List<UUID> expected = backing.findAll().stream().filter(e -> e.getScore() >= 2 && !e.getName().equals("Late")).sorted(byScore).map(FakeEntity::getId).toList();
+        assertEquals(expected, walked);
+
+        walked.clear();
+        for (CursorRequest request = CursorRequest.first(3, Sort.by("createdAt", Sort.Direction.DESC)); request != null; ) {
+            CursorPage<FakeEntity> next = live.findByActiveTrue(request);
+            next.stream().map(FakeEntity::getId).forEach(walked::add);
+            request = next.next().orElse(null);
+        }
+        assertEquals(backing.findAll().stream().sorted(byCreated).map(FakeEntity::getId).toList(), walked);
+
+        assertThrows(IllegalArgumentException.class, () -> live.findByActiveTrue(CursorRequest.after(scoreCursor, 3, Sort.by("createdAt", Sort.Direction.DESC))));
+        assertThrows(IllegalArgumentException.class, () -> live.findByActiveTrue(CursorRequest.after("not-a-cursor", 3, Sort.unsorted())));
+        assertEquals(2, storage.findByActiveTrue(CursorRequest.first(5)).content().size());
+
+        List<Integer> sizes = new ArrayList<>();
+        for (CursorRequest request = CursorRequest.first(2, Sort.by("score", Sort.Direction.DESC)); request != null; ) {
+            CursorPage<FakeEntity> next = live.findTopScoredFrom(2, request);
+            sizes.add(next.content().size());
+            request = next.next().orElse(null);
+        }
+        assertEquals(List.of(2, 2, 1), sizes);
+    }
+
+    @Test
+    void testExplainReportsAccessPathAndRowCounts() throws NoSuchMethodException {
+        InMemoryQueryExecutor<FakeEntity> executor = new InMemoryQueryExecutor<>(backing);
+        for (int i = 0; i < 40; i++) {
+            backing.save(new FakeEntity(UUID.randomUUID(), "E" + (i % 4), i, i % 2 == 0, Instant.now()));
+        }
+        SimpleQueryParser parser = new SimpleQueryParser();
+        StorageDefinition definition = new StorageDefinition(FakeEntity.class, UUID.class);
+
+        QueryExplanation byName = executor.explain(parser.parse(FakeStorage.class.getMethod("findByName", String.class), definition), new Object[]{"E1"});
+        assertEquals(QueryExplanation.AccessPath.INDEX_LOOKUP, byName.accessPath());
+        assertEquals(10, byName.rowsScanned());
+        assertEquals(10, byName.rowsReturned());
+
+        QueryExplanation byActive = executor.explain(parser.parse(FakeStorage.class.getMethod("findByActiveTrue"), definition), new Object[0]);
+        assertEquals(QueryExplanation.AccessPath.FULL_SCAN, byActive.accessPath());
+        assertEquals(40, byActive.rowsScanned());
+        assertEquals(20, byActive.rowsMatched());
+        assertEquals(List.of(List.of(byActive.conditions().get(0).get(0))), byActive.conditions());
+
+        QueryExplanation counted = executor.explain(parser.parse(FakeStorage.class.getMethod("countByName", String.class), definition), new Object[]{"E2"});
+        assertEquals(QueryExplanation.AccessPath.INDEX_COUNT, counted.accessPath());
+        assertEquals(10, counted.rowsMatched());
+        assertEquals(0, counted.rowsScanned());
+
+        QueryExplanation deleted = executor.explain(parser.parse(FakeStorage.class.getMethod("deleteByActiveFalse"), definition), new Object[0]);
+        assertEquals(20, deleted.rowsReturned());
+        assertEquals(40, backing.count());
+        assertTrue(deleted.toString().contains("scanned=40 matched=20"));
+
+        ScanTracker.Scan outer = ScanTracker.begin();
+        executor.explain(parser.parse(FakeStorage.class.getMethod("findByActiveTrue"), definition), new Object[0]);
+        ScanTracker.Scan scan = ScanTracker.end(outer);
+        assertEquals(0, scan.rows());
+        assertNull(scan.accessPath());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package xyz.quartzframework.data;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class Subscription {
+    private UUID id;
+    private String status = "ACTIVE";
+    private Integer seats = 1;
+    private int renewals;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package xyz.quartzframework.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class Transfer {
+    private UUID id;
+    private String owner;
+    private long bytes;
+    private long byteCount;
+    private String groupByKey;
+}
\ No newline at end of file
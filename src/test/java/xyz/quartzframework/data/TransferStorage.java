@@ -0,0 +1,23 @@
+package xyz.quartzframework.data;
+
+import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.storage.InMemoryStorage;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Storage
+public interface TransferStorage extends InMemoryStorage<Transfer, UUID> {
+
+    long sumBytesByOwner(String owner);
+
+    Optional<Long> maxByteCount();
+
+    Optional<Long> maxByteCountByOwner(String owner);
+
+    Map<String, Long> countByGroupByKeyGroupByOwner(String key);
+
+    Map<String, Long> sumBytesByOwnerGroupByGroupByKey(String owner);
+
+}
\ No newline at end of file
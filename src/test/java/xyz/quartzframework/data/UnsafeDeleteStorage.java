@@ -0,0 +1,26 @@
+package xyz.quartzframework.data;
+
+import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.query.Query;
+import xyz.quartzframework.data.storage.InMemoryStorage;
+
+import java.util.UUID;
+
+@Storage
+public interface UnsafeDeleteStorage extends InMemoryStorage<FakeEntity, UUID> {
+
+    void delete(FakeEntity entity);
+
+    long deleteBy();
+
+    long deleteByName(String name, int score);
+
+    long deleteByActiveTrueAndName(String name);
+
+    @Query("delete where score < ?1")
+    long deleteLowScorers(int maxScore, String reason);
+
+    @Query("update set name = 'a, b = c' where name = ?1")
+    int renameToLiteral(String name);
+
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package xyz.quartzframework.data.codec;
+
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.Subscription;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldEntityCodecTest {
+
+    @Test
+    void testNoArgsEntitiesKeepStoredNullsOverFieldDefaults() {
+        FieldEntityCodec<Subscription> codec = FieldEntityCodec.of(Subscription.class);
+        Subscription subscription = new Subscription();
+        subscription.setId(new UUID(0, 1));
+        subscription.setStatus(null);
+        subscription.setSeats(null);
+        subscription.setRenewals(3);
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        codec.encode(subscription, buffer);
+        Subscription decoded = codec.decode(buffer.flip());
+
+        assertEquals(new UUID(0, 1), decoded.getId());
+        assertNull(decoded.getStatus());
+        assertNull(decoded.getSeats());
+        assertEquals(3, decoded.getRenewals());
+
+        subscription.setStatus("PAUSED");
+        codec.encode(subscription, buffer.clear());
+        assertEquals("PAUSED", codec.decode(buffer.flip()).getStatus());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package xyz.quartzframework.data.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.quartzframework.data.FakeEntity;
+import xyz.quartzframework.data.FakeStorage;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+
+    @TempDir
+    Path directory;
+
+    private HashMapStorage<FakeEntity, UUID> backing;
+
+    private FakeStorage live;
+
+    @BeforeEach
+    void setUp() {
+        backing = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        live = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, new InMemoryQueryExecutor<>(backing), FakeEntity.class, UUID.class);
+    }
+
+    @Test
+    void testFlightRecorderEventsForParsingQueriesAndWrites() throws Exception {
+        Path dump = directory.resolve("quartz-data.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("xyz.quartzframework.data.QueryParse").withThreshold(Duration.ZERO);
+            recording.enable("xyz.quartzframework.data.QueryExecution").withThreshold(Duration.ZERO);
+            recording.enable("xyz.quartzframework.data.StorageWrite").withThreshold(Duration.ZERO);
+            recording.start();
+            backing.save(List.of(new FakeEntity(UUID.randomUUID(), "Alice", 90, true, Instant.now()), new FakeEntity(UUID.randomUUID(), "Bob", 50, false, Instant.now())));
+            assertEquals(1, live.findByName("Bob").size());
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent write = events.stream().filter(e -> e.getEventType().getName().equals("xyz.quartzframework.data.StorageWrite")).findFirst().orElseThrow();
+        assertEquals("save", write.getString("operation"));
+        assertEquals(2, write.getLong("entities"));
+        RecordedEvent parse = events.stream().filter(e -> e.getEventType().getName().equals("xyz.quartzframework.data.QueryParse")).findFirst().orElseThrow();
+        assertTrue(parse.getString("method").endsWith("FakeStorage.findByName"));
+        RecordedEvent execution = events.stream().filter(e -> e.getEventType().getName().equals("xyz.quartzframework.data.QueryExecution")).findFirst().orElseThrow();
+        assertEquals("INDEX_LOOKUP", execution.getString("accessPath"));
+        assertEquals(1, execution.getLong("rowsScanned"));
+        assertEquals(1, execution.getLong("rowsReturned"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package xyz.quartzframework.data.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import xyz.quartzframework.data.FakeEntity;
+import xyz.quartzframework.data.FakeStorage;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.ParameterBindingException;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private HashMapStorage<FakeEntity, UUID> backing;
+
+    @BeforeEach
+    void setUp() {
+        backing = new HashMapStorage<>(FakeEntity.class, UUID.class);
+    }
+
+    @Test
+    void testMetricsRecordInvocationsAndPublishMBeans() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        MetricsRegistry metrics = new MetricsRegistry(server);
+        for (int i = 0; i < 20; i++) {
+            backing.save(new FakeEntity(UUID.randomUUID(), "E" + (i % 4), i, i % 2 == 0, Instant.now()));
+        }
+        ProxyFactory factory = ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), backing, FakeEntity.class, FakeStorage.class, new InMemoryQueryExecutor<>(backing));
+        factory.addAdvice(0, new MetricsInterceptor(FakeStorage.class, metrics));
+        metrics.register(FakeStorage.class, backing::count);
+        FakeStorage measured = (FakeStorage) factory.getProxy();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5, measured.findByName("E1").size());
+        }
+        assertEquals(10, measured.findByActiveTrue().size());
+        assertThrows(ParameterBindingException.class, () -> measured.brokenQuery(Instant.now()));
+
+        MethodStatistics byName = metrics.statistics(FakeStorage.class).method(FakeStorage.class.getMethod("findByName", String.class));
+        assertEquals(3, byName.getInvocations());
+        assertEquals(15, byName.getRowsReturned());
+        assertEquals(15, byName.getRowsScanned());
+        MethodStatistics byActive = metrics.statistics(FakeStorage.class).method(FakeStorage.class.getMethod("findByActiveTrue"));
+        assertEquals(20, byActive.getRowsScanned());
+        assertEquals(1, metrics.statistics(FakeStorage.class).getErrors());
+
+        ObjectName storageName = new ObjectName(MetricsRegistry.DOMAIN + ":type=Storage,name=" + ObjectName.quote(FakeStorage.class.getName()));
+        assertEquals(20L, server.getAttribute(storageName, "EntityCount"));
+        assertEquals(5L, server.getAttribute(storageName, "Invocations"));
+        ObjectName methodName = new ObjectName(MetricsRegistry.DOMAIN + ":type=StorageMethod,storage=" + ObjectName.quote(FakeStorage.class.getName()) + ",name=" + ObjectName.quote("findByName(String)"));
+        assertEquals(3L, server.getAttribute(methodName, "Invocations"));
+        metrics.close();
+        assertTrue(server.queryNames(new ObjectName(MetricsRegistry.DOMAIN + ":*"), null).isEmpty());
+    }
+
+    @Test
+    void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000_000, histogram.percentile(50), 5_000_000 * 0.07);
+        assertEquals(9_900_000, histogram.percentile(99), 9_900_000 * 0.07);
+        assertEquals(10_000_000, histogram.percentile(100));
+        LatencyHistogram single = new LatencyHistogram();
+        single.record(7);
+        assertEquals(7, single.percentile(50));
+    }
+}
\ No newline at end of file
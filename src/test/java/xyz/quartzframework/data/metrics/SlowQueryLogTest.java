@@ -0,0 +1,72 @@
+package xyz.quartzframework.data.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.FakeEntity;
+import xyz.quartzframework.data.FakeStorage;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.QueryExplanation;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    private HashMapStorage<FakeEntity, UUID> backing;
+
+    @BeforeEach
+    void setUp() {
+        backing = new HashMapStorage<>(FakeEntity.class, UUID.class);
+    }
+
+    @Test
+    void testSlowQueryLogKeepsMostRecentEntries() {
+        SlowQueryLog slowLog = new SlowQueryLog(Duration.ZERO, 2, false, true, ArgumentRenderer.DEFAULT);
+        for (int i = 0; i < 20; i++) {
+            backing.save(new FakeEntity(UUID.randomUUID(), "E" + (i % 4), i, i % 2 == 0, Instant.now()));
+        }
+        FakeStorage logged = (FakeStorage) ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), backing, FakeEntity.class, FakeStorage.class, new InMemoryQueryExecutor<>(backing), slowLog).getProxy();
+
+        logged.findByActiveTrue();
+        logged.findByScoreIn(List.of(1L, 2L, 3L, 4L, 5L));
+        logged.findByConfidentialName("E3");
+
+        List<SlowQuery> entries = slowLog.entries();
+        assertEquals(3, slowLog.getRecorded());
+        assertEquals(2, entries.size());
+        SlowQuery in = entries.get(0);
+        assertEquals("FakeStorage.findByScoreIn", in.method());
+        assertEquals(List.of("[1, 2, 3, ... (5 total)]"), in.arguments());
+        assertEquals(5, in.rowsScanned());
+        assertEquals(5, in.rowsReturned());
+        assertEquals(QueryExplanation.AccessPath.INDEX_LOOKUP, in.accessPath());
+        assertNotNull(in.plan());
+        assertEquals(5, in.plan().rowsReturned());
+        SlowQuery confidential = entries.get(1);
+        assertEquals("find where name = :name", confidential.query());
+        assertEquals(List.of("<redacted>"), confidential.arguments());
+        assertEquals(5, confidential.rowsScanned());
+
+        SlowQueryLog planless = new SlowQueryLog(Duration.ZERO, 4);
+        FakeStorage deleting = (FakeStorage) ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), backing, FakeEntity.class, FakeStorage.class, new InMemoryQueryExecutor<>(backing), planless).getProxy();
+        assertEquals(10, deleting.deleteByActiveFalse());
+        SlowQuery delete = planless.entries().get(0);
+        assertNull(delete.plan());
+        assertEquals(QueryExplanation.AccessPath.FULL_SCAN, delete.accessPath());
+        assertEquals(20, delete.rowsScanned());
+        assertEquals(10, delete.rowsReturned());
+
+        SlowQueryLog disabled = SlowQueryLog.disabled();
+        FakeStorage unlogged = (FakeStorage) ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), backing, FakeEntity.class, FakeStorage.class, new InMemoryQueryExecutor<>(backing), disabled).getProxy();
+        assertEquals(10, unlogged.findByActiveTrue().size());
+        assertFalse(disabled.isSlow(Long.MAX_VALUE));
+        assertEquals(0, disabled.getRecorded());
+    }
+}
\ No newline at end of file
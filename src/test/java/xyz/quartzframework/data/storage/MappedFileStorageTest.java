@@ -0,0 +1,97 @@
+package xyz.quartzframework.data.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.quartzframework.data.FakeEntity;
+import xyz.quartzframework.data.FakeStorage;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileStorageTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMappedStorageSurvivesRestartWithoutLoading() throws Exception {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        List<FakeEntity> entities = IntStream.range(0, 3_000)
+                .mapToObj(i -> new FakeEntity(new UUID(1, i), "E" + i, i % 100, i % 3 == 0, now.plusSeconds(i)))
+                .toList();
+        MappedStorageProvider provider = new MappedStorageProvider(directory, 8192);
+        MappedFileStorage<FakeEntity, UUID> mapped = provider.create(FakeEntity.class, UUID.class);
+        mapped.save(entities);
+        mapped.delete(entities.subList(0, 1_000));
+        mapped.save(new FakeEntity(new UUID(1, 1_500), "Renamed".repeat(20), 42, false, now));
+        assertEquals(2_000, mapped.count());
+        provider.close();
+
+        MappedStorageProvider reopened = new MappedStorageProvider(directory, 8192);
+        MappedFileStorage<FakeEntity, UUID> restored = reopened.create(FakeEntity.class, UUID.class);
+        assertEquals(2_000, restored.count());
+        assertTrue(restored.findById(new UUID(1, 999)).isEmpty());
+        FakeEntity renamed = restored.findById(new UUID(1, 1_500)).orElseThrow();
+        assertEquals("Renamed".repeat(20), renamed.getName());
+        assertEquals(42, renamed.getScore());
+        assertEquals(now.plusSeconds(2_999), restored.findById(new UUID(1, 2_999)).orElseThrow().getCreatedAt());
+        assertEquals(2_000, restored.values().stream().count());
+
+        FakeStorage persistent = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, reopened.getQueryExecutor(restored), FakeEntity.class, UUID.class);
+        assertEquals(List.of(new UUID(1, 2_345)), persistent.findByName("E2345").stream().map(FakeEntity::getId).toList());
+        assertEquals(20, persistent.findByScoreGreaterThan(98).size());
+        assertEquals(665, persistent.countByActiveTrue());
+
+        long size = Files.size(restored.getPath());
+        restored.save(entities.subList(0, 500));
+        assertEquals(2_500, restored.count());
+        assertEquals(size, Files.size(restored.getPath()));
+
+        Iterator<FakeEntity> scan = restored.values().iterator();
+        Set<UUID> seen = new HashSet<>(List.of(scan.next().getId()));
+        restored.save(entities.stream().map(e -> new FakeEntity(e.getId(), "Moved".repeat(20), e.getScore(), e.isActive(), e.getCreatedAt())).toList());
+        long returned = 1;
+        for (; scan.hasNext(); returned++) {
+            seen.add(scan.next().getId());
+        }
+        assertEquals(seen.size(), returned);
+        reopened.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(p -> p.toString().endsWith(".idx")).toList()) Files.delete(file);
+        }
+        MappedStorageProvider missing = new MappedStorageProvider(directory, 8192);
+        MappedFileStorage<FakeEntity, UUID> reindexed = missing.create(FakeEntity.class, UUID.class);
+        assertEquals(3_000, reindexed.count());
+        assertEquals("Moved".repeat(20), reindexed.findById(new UUID(1, 2_999)).orElseThrow().getName());
+        missing.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Path index = files.filter(p -> p.toString().endsWith(".idx")).findFirst().orElseThrow();
+            try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 7), 12);
+            }
+        }
+        MappedStorageProvider mismatched = new MappedStorageProvider(directory, 8192);
+        MappedFileStorage<FakeEntity, UUID> recounted = mismatched.create(FakeEntity.class, UUID.class);
+        assertEquals(3_000, recounted.count());
+        assertTrue(recounted.exists(new UUID(1, 0)));
+        assertEquals(3_000, recounted.values().stream().count());
+        mismatched.close();
+    }
+}
\ No newline at end of file
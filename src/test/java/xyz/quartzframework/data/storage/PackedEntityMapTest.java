@@ -0,0 +1,64 @@
+package xyz.quartzframework.data.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedEntityMapTest {
+
+    @Test
+    void testPackedEntityMapsForLongAndUuidIds() {
+        assertNotSame(EntityMap.forIdClass(String.class).getClass(), EntityMap.forIdClass(Long.class).getClass());
+        assertNotSame(EntityMap.forIdClass(String.class).getClass(), EntityMap.forIdClass(UUID.class).getClass());
+
+        EntityMap<Long, String> longs = EntityMap.forIdClass(Long.class);
+        LongStream.range(0, 10_000).forEach(i -> longs.put(i * 1024, "v" + i));
+        assertEquals(10_000, longs.size());
+        assertEquals("v0", longs.put(0L, "zero"));
+        LongStream.range(0, 10_000).filter(i -> i % 2 == 0).forEach(i -> assertNotNull(longs.remove(i * 1024)));
+        assertNull(longs.remove(0L));
+        assertEquals(5_000, longs.size());
+        for (long i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? null : "v" + i, longs.get(i * 1024));
+        }
+        assertEquals(5_000, new HashSet<>(longs.keys()).size());
+        assertTrue(longs.keys().stream().allMatch(key -> key % 2048 == 1024));
+        assertEquals(5_000, longs.values().stream().count());
+        assertNull(longs.computeIfPresent(2048L, (key, value) -> "missing"));
+        assertEquals("v1!", longs.compute(1024L, (key, value) -> value + "!"));
+        assertNull(longs.compute(1024L, (key, value) -> null));
+        assertFalse(longs.containsKey(1024L));
+
+        EntityMap<Integer, String> ints = EntityMap.forIdClass(Integer.class);
+        ints.put(-1, "negative");
+        assertEquals(List.of(-1), ints.keys());
+
+        EntityMap<UUID, Integer> uuids = EntityMap.forIdClass(UUID.class);
+        List<UUID> ids = IntStream.range(0, 20_000).mapToObj(i -> new UUID(i % 7, i)).toList();
+        ForkJoinPool.commonPool().submit(() -> ids.parallelStream().forEach(id -> uuids.put(id, (int) id.getLeastSignificantBits()))).join();
+        ForkJoinPool.commonPool().submit(() -> ids.parallelStream().forEach(id -> {
+            assertEquals(Integer.valueOf((int) id.getLeastSignificantBits()), uuids.get(new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits())));
+            if (id.getLeastSignificantBits() % 3 == 0) uuids.remove(id);
+        })).join();
+        long kept = ids.stream().filter(id -> id.getLeastSignificantBits() % 3 != 0).count();
+        assertEquals(kept, uuids.size());
+        assertEquals(kept, uuids.values().parallelStream().count());
+        assertEquals(new HashSet<>(ids.stream().filter(id -> id.getLeastSignificantBits() % 3 != 0).toList()), new HashSet<>(uuids.keys()));
+
+        Spliterator<Integer> suffix = uuids.values().spliterator();
+        assertEquals(kept, suffix.estimateSize());
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(kept, prefix.estimateSize() + suffix.estimateSize());
+        uuids.values().forEach(value -> uuids.put(new UUID(9, value), value));
+        assertEquals(kept * 2, uuids.size());
+    }
+}
\ No newline at end of file
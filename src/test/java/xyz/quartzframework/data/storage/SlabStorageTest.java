@@ -0,0 +1,67 @@
+package xyz.quartzframework.data.storage;
+
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.FakeEntity;
+import xyz.quartzframework.data.FakeStorage;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlabStorageTest {
+
+    @Test
+    void testOffHeapStorageKeepsEntitiesInSlabsAndReusesFreedSpace() {
+        SlabStorage<FakeEntity, UUID> slabs = new OffHeapStorageProvider(1 << 16).create(FakeEntity.class, UUID.class);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        List<FakeEntity> entities = IntStream.range(0, 2_000)
+                .mapToObj(i -> new FakeEntity(new UUID(0, i), i % 10 == 0 ? null : "E" + i, i % 100, i % 2 == 0, now.plusSeconds(i)))
+                .toList();
+        slabs.save(entities);
+        assertEquals(2_000, slabs.count());
+        FakeEntity copy = slabs.findById(new UUID(0, 7)).orElseThrow();
+        assertNotSame(entities.get(7), copy);
+        assertEquals("E7", copy.getName());
+        assertEquals(7, copy.getScore());
+        assertFalse(copy.isActive());
+        assertEquals(now.plusSeconds(7), copy.getCreatedAt());
+        assertNull(slabs.findById(new UUID(0, 10)).orElseThrow().getName());
+        assertEquals(2_000, slabs.values().stream().count());
+
+        FakeStorage offHeap = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class, new OffHeapStorageProvider().getQueryExecutor(slabs), FakeEntity.class, UUID.class);
+        assertEquals(List.of("E1234"), offHeap.findByName("E1234").stream().map(FakeEntity::getName).toList());
+        assertEquals(20, offHeap.findByScoreGreaterThan(98).size());
+        assertEquals(1_000, offHeap.countByActiveTrue());
+
+        long allocated = slabs.getAllocatedBytes();
+        slabs.delete(entities.subList(0, 500));
+        assertEquals(1_500, slabs.count());
+        assertTrue(slabs.getFreeBytes() > 0);
+        assertTrue(slabs.findById(new UUID(0, 7)).isEmpty());
+        slabs.save(entities.subList(0, 500));
+        assertEquals(0, slabs.getFreeBytes());
+        assertEquals(allocated, slabs.getAllocatedBytes());
+
+        slabs.save(new FakeEntity(new UUID(0, 7), "E7".repeat(50), 7, false, now));
+        assertEquals("E7".repeat(50), slabs.findById(new UUID(0, 7)).orElseThrow().getName());
+        assertEquals(2_000, slabs.findAll().size());
+        assertEquals(1, offHeap.findByName("E7".repeat(50)).size());
+
+        Iterator<FakeEntity> scan = slabs.values().iterator();
+        Set<UUID> seen = new HashSet<>(List.of(scan.next().getId()));
+        slabs.save(entities.stream().map(e -> new FakeEntity(e.getId(), "Moved".repeat(20), e.getScore(), e.isActive(), e.getCreatedAt())).toList());
+        long returned = 1;
+        for (; scan.hasNext(); returned++) {
+            seen.add(scan.next().getId());
+        }
+        assertEquals(seen.size(), returned);
+    }
+}
\ No newline at end of file
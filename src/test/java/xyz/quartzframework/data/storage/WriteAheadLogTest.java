@@ -0,0 +1,76 @@
+package xyz.quartzframework.data.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.quartzframework.data.FakeEntity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDurableStorageRecoversFromSnapshotAndLogTail() throws Exception {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        List<FakeEntity> entities = IntStream.range(0, 2_000)
+                .mapToObj(i -> new FakeEntity(new UUID(2, i), "E" + i, i % 100, i % 2 == 0, now.plusSeconds(i)))
+                .toList();
+        DurabilityOptions options = DurabilityOptions.of(directory).withSnapshotBytes(0);
+        DurableStorageProvider provider = new DurableStorageProvider(options);
+        HashMapStorage<FakeEntity, UUID> durable = provider.create(FakeEntity.class, UUID.class);
+        durable.save(entities.subList(0, 1_000));
+        entities.subList(1_000, 2_000).parallelStream().forEach(durable::save);
+        assertTrue(durable.getWriteAheadLog().getSyncCount() > 0);
+        durable.delete(entities.subList(0, 100));
+        provider.snapshot();
+
+        durable.deleteById(new UUID(2, 150));
+        durable.save(new FakeEntity(new UUID(2, 200), "Renamed", 7, false, now));
+        durable.save(new FakeEntity(new UUID(2, 300), "L".repeat(200_000), 0, true, now));
+        assertEquals(19, durable.removeIf(null, e -> e.getScore() == 99));
+        assertEquals(1_880, durable.count());
+        provider.close();
+
+        Path tail;
+        try (Stream<Path> logs = Files.list(directory)) {
+            tail = logs.filter(p -> p.toString().endsWith(".wal")).max(Comparator.comparing(Path::toString)).orElseThrow();
+        }
+        Files.write(tail, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        DurableStorageProvider reopened = new DurableStorageProvider(options);
+        HashMapStorage<FakeEntity, UUID> restored = reopened.create(FakeEntity.class, UUID.class);
+        assertEquals(1_880, restored.count());
+        assertTrue(restored.findById(new UUID(2, 50)).isEmpty());
+        assertTrue(restored.findById(new UUID(2, 150)).isEmpty());
+        assertTrue(restored.findById(new UUID(2, 199)).isEmpty());
+        assertEquals("Renamed", restored.findById(new UUID(2, 200)).orElseThrow().getName());
+        assertEquals(now.plusSeconds(1_998), restored.findById(new UUID(2, 1_998)).orElseThrow().getCreatedAt());
+        assertEquals("L".repeat(200_000), restored.findById(new UUID(2, 300)).orElseThrow().getName());
+        assertEquals(1_900 + 22, restored.getWriteAheadLog().getRecoveredRecords());
+
+        restored.save(entities.subList(0, 10));
+        reopened.close();
+        DurableStorageProvider again = new DurableStorageProvider(options);
+        assertEquals(1_890, again.create(FakeEntity.class, UUID.class).count());
+        again.close();
+
+        DurableStorageProvider compacting = new DurableStorageProvider(options.withSnapshotBytes(1));
+        assertEquals(1_890, compacting.create(FakeEntity.class, UUID.class).count());
+        compacting.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(p -> p.toString().endsWith(".wal")).count());
+        }
+    }
+}
\ No newline at end of file